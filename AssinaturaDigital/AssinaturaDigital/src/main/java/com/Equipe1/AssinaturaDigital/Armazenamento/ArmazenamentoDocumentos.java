@@ -0,0 +1,43 @@
+package com.Equipe1.AssinaturaDigital.Armazenamento;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * SPI de armazenamento dos documentos (PDFs e selfies).
+ * A chave é o caminho lógico sem a barra inicial, por exemplo "arquivos/&lt;sha256&gt;.pdf"
+ * ou "selfies/&lt;id&gt;_selfie_&lt;timestamp&gt;.jpg".
+ */
+public interface ArmazenamentoDocumentos {
+
+    /**
+     * Grava (ou substitui) o conteúdo da chave lendo o stream até o fim
+     */
+    void salvar(String chave, InputStream conteudo, long tamanho) throws IOException;
+
+    /**
+     * Grava o conteúdo de um arquivo temporário local. O arquivo pode ser movido pela
+     * implementação; quem chama continua responsável por apagá-lo caso ainda exista.
+     */
+    default void importar(String chave, Path arquivoTemporario) throws IOException {
+        try (InputStream conteudo = Files.newInputStream(arquivoTemporario)) {
+            salvar(chave, conteudo, Files.size(arquivoTemporario));
+        }
+    }
+
+    Optional<DocumentoArmazenado> buscar(String chave) throws IOException;
+
+    boolean existe(String chave) throws IOException;
+
+    void apagar(String chave) throws IOException;
+
+    /**
+     * Converte o caminho lógico gravado no banco ("/arquivos/x.pdf") na chave do armazenamento
+     */
+    static String chaveDe(String caminhoLogico) {
+        return caminhoLogico.startsWith("/") ? caminhoLogico.substring(1) : caminhoLogico;
+    }
+}
@@ -0,0 +1,12 @@
+package com.Equipe1.AssinaturaDigital.Armazenamento;
+
+public class ArmazenamentoException extends RuntimeException {
+
+    public ArmazenamentoException(String message) {
+        super(message);
+    }
+
+    public ArmazenamentoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
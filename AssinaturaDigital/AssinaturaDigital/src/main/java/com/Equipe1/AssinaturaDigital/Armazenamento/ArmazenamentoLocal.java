@@ -0,0 +1,142 @@
+package com.Equipe1.AssinaturaDigital.Armazenamento;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Armazenamento em disco local distribuído entre vários volumes. O volume e os dois níveis
+ * de subdiretório vêm do SHA-256 da chave, por exemplo:
+ * {@code <volume>/arquivos/3f/a2/<nome>.pdf}. Arquivos antigos, gravados no diretório
+ * plano de uploads, continuam sendo encontrados no primeiro volume.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.tipo", havingValue = "local", matchIfMissing = true)
+public class ArmazenamentoLocal implements ArmazenamentoDocumentos {
+
+    private final List<Path> volumes;
+
+    public ArmazenamentoLocal(@Value("${app.storage.local.volumes:${app.upload.dir:uploads}}") List<String> volumes) {
+        if (volumes.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um volume em app.storage.local.volumes");
+        }
+        this.volumes = volumes.stream().map(String::trim).map(Paths::get).toList();
+    }
+
+    @Override
+    public void salvar(String chave, InputStream conteudo, long tamanho) throws IOException {
+        Path destino = caminhoDistribuido(chave);
+        Files.createDirectories(destino.getParent());
+
+        Path temporario = Files.createTempFile(destino.getParent(), "gravacao-", ".tmp");
+        try {
+            Files.copy(conteudo, temporario, StandardCopyOption.REPLACE_EXISTING);
+            moverAtomicamente(temporario, destino);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    @Override
+    public void importar(String chave, Path arquivoTemporario) throws IOException {
+        Path destino = caminhoDistribuido(chave);
+        Files.createDirectories(destino.getParent());
+        moverAtomicamente(arquivoTemporario, destino);
+    }
+
+    @Override
+    public Optional<DocumentoArmazenado> buscar(String chave) throws IOException {
+        for (Path caminho : List.of(caminhoDistribuido(chave), caminhoLegado(chave))) {
+            try {
+                BasicFileAttributes atributos = Files.readAttributes(caminho, BasicFileAttributes.class);
+                return Optional.of(new DocumentoArmazenado(chave, new FileSystemResource(caminho), atributos.size(),
+                        atributos.lastModifiedTime().toInstant(), caminho));
+            } catch (NoSuchFileException e) {
+                // tenta o próximo local
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean existe(String chave) {
+        return Files.exists(caminhoDistribuido(chave)) || Files.exists(caminhoLegado(chave));
+    }
+
+    @Override
+    public void apagar(String chave) throws IOException {
+        Files.deleteIfExists(caminhoDistribuido(chave));
+        Files.deleteIfExists(caminhoLegado(chave));
+    }
+
+    private Path caminhoDistribuido(String chave) {
+        validarChave(chave);
+        byte[] hash = sha256(chave);
+        String hex = HexFormat.of().formatHex(hash, 0, 2);
+
+        int indiceVolume = Math.floorMod(((hash[2] & 0xff) << 8) | (hash[3] & 0xff), volumes.size());
+        int barra = chave.lastIndexOf('/');
+        String categoria = barra > 0 ? chave.substring(0, barra) : "";
+        String nome = chave.substring(barra + 1);
+
+        return volumes.get(indiceVolume)
+                .resolve(categoria)
+                .resolve(hex.substring(0, 2))
+                .resolve(hex.substring(2, 4))
+                .resolve(nome);
+    }
+
+    // Layout antigo: PDFs direto em uploads/ e selfies em uploads/selfies/
+    private Path caminhoLegado(String chave) {
+        validarChave(chave);
+        String relativo = chave.startsWith("arquivos/") ? chave.substring("arquivos/".length()) : chave;
+        return volumes.get(0).resolve(relativo);
+    }
+
+    private void validarChave(String chave) {
+        if (chave == null || chave.isBlank() || chave.contains("..") || chave.startsWith("/")) {
+            throw new IllegalArgumentException("Chave de documento inválida: " + chave);
+        }
+    }
+
+    private void moverAtomicamente(Path origem, Path destino) throws IOException {
+        try {
+            Files.move(origem, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            // origem em outro sistema de arquivos: copia para o diretório de destino e renomeia lá
+            Path copia = Files.createTempFile(destino.getParent(), "gravacao-", ".tmp");
+            try {
+                Files.copy(origem, copia, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(copia, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(copia);
+            }
+            Files.deleteIfExists(origem);
+        }
+    }
+
+    private static byte[] sha256(String chave) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(chave.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.Equipe1.AssinaturaDigital.Armazenamento;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Armazenamento em memória, para testes e execução local sem disco (app.storage.tipo=memoria)
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.tipo", havingValue = "memoria")
+public class ArmazenamentoMemoria implements ArmazenamentoDocumentos {
+
+    private record Conteudo(byte[] bytes, Instant gravadoEm) {
+    }
+
+    private final Map<String, Conteudo> documentos = new ConcurrentHashMap<>();
+
+    @Override
+    public void salvar(String chave, InputStream conteudo, long tamanho) throws IOException {
+        documentos.put(chave, new Conteudo(conteudo.readAllBytes(), Instant.now()));
+    }
+
+    @Override
+    public Optional<DocumentoArmazenado> buscar(String chave) {
+        Conteudo conteudo = documentos.get(chave);
+        if (conteudo == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new DocumentoArmazenado(chave, new ByteArrayResource(conteudo.bytes()),
+                conteudo.bytes().length, conteudo.gravadoEm(), null));
+    }
+
+    @Override
+    public boolean existe(String chave) {
+        return documentos.containsKey(chave);
+    }
+
+    @Override
+    public void apagar(String chave) {
+        documentos.remove(chave);
+    }
+}
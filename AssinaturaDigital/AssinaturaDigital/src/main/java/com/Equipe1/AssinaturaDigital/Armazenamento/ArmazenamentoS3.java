@@ -0,0 +1,171 @@
+package com.Equipe1.AssinaturaDigital.Armazenamento;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import jakarta.annotation.PreDestroy;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * Armazenamento em um bucket compatível com a API do S3 (AWS, MinIO, Ceph...).
+ * Para usar um MinIO local: app.storage.tipo=s3, app.storage.s3.endpoint=http://localhost:9000
+ * e app.storage.s3.path-style=true.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.tipo", havingValue = "s3")
+public class ArmazenamentoS3 implements ArmazenamentoDocumentos {
+
+    private final S3Client s3;
+    private final String bucket;
+
+    public ArmazenamentoS3(
+            @Value("${app.storage.s3.bucket}") String bucket,
+            @Value("${app.storage.s3.regiao:us-east-1}") String regiao,
+            @Value("${app.storage.s3.endpoint:}") String endpoint,
+            @Value("${app.storage.s3.path-style:false}") boolean pathStyle,
+            @Value("${app.storage.s3.access-key:}") String accessKey,
+            @Value("${app.storage.s3.secret-key:}") String secretKey) {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(regiao))
+                .forcePathStyle(pathStyle);
+        if (StringUtils.hasText(endpoint)) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        if (StringUtils.hasText(accessKey)) {
+            builder.credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+        } else {
+            builder.credentialsProvider(DefaultCredentialsProvider.builder().build());
+        }
+        this.s3 = builder.build();
+        this.bucket = bucket;
+    }
+
+    @Override
+    public void salvar(String chave, InputStream conteudo, long tamanho) throws IOException {
+        try {
+            s3.putObject(req -> req.bucket(bucket).key(chave), RequestBody.fromInputStream(conteudo, tamanho));
+        } catch (SdkException e) {
+            throw new IOException("Erro ao gravar no S3: " + chave, e);
+        }
+    }
+
+    @Override
+    public void importar(String chave, Path arquivoTemporario) throws IOException {
+        try {
+            s3.putObject(req -> req.bucket(bucket).key(chave), RequestBody.fromFile(arquivoTemporario));
+        } catch (SdkException e) {
+            throw new IOException("Erro ao gravar no S3: " + chave, e);
+        }
+    }
+
+    @Override
+    public Optional<DocumentoArmazenado> buscar(String chave) throws IOException {
+        return cabecalho(chave).map(head -> new DocumentoArmazenado(chave,
+                new ObjetoS3(chave, head.contentLength(), head.lastModified()),
+                head.contentLength(), head.lastModified(), null));
+    }
+
+    @Override
+    public boolean existe(String chave) throws IOException {
+        return cabecalho(chave).isPresent();
+    }
+
+    @Override
+    public void apagar(String chave) throws IOException {
+        try {
+            s3.deleteObject(req -> req.bucket(bucket).key(chave));
+        } catch (SdkException e) {
+            throw new IOException("Erro ao apagar do S3: " + chave, e);
+        }
+    }
+
+    @PreDestroy
+    public void fechar() {
+        s3.close();
+    }
+
+    private Optional<HeadObjectResponse> cabecalho(String chave) throws IOException {
+        try {
+            return Optional.of(s3.headObject(req -> req.bucket(bucket).key(chave)));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw new IOException("Erro ao consultar o S3: " + chave, e);
+        } catch (SdkException e) {
+            throw new IOException("Erro ao consultar o S3: " + chave, e);
+        }
+    }
+
+    /**
+     * Resource que só abre o GET no S3 quando o conteúdo é efetivamente lido
+     */
+    private class ObjetoS3 extends AbstractResource {
+
+        private final String chave;
+        private final long tamanho;
+        private final Instant ultimaModificacao;
+
+        ObjetoS3(String chave, long tamanho, Instant ultimaModificacao) {
+            this.chave = chave;
+            this.tamanho = tamanho;
+            this.ultimaModificacao = ultimaModificacao;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            try {
+                return s3.getObject(req -> req.bucket(bucket).key(chave));
+            } catch (SdkException e) {
+                throw new IOException("Erro ao ler do S3: " + chave, e);
+            }
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return tamanho;
+        }
+
+        @Override
+        public long lastModified() {
+            return ultimaModificacao.toEpochMilli();
+        }
+
+        @Override
+        public String getFilename() {
+            return chave.substring(chave.lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public String getDescription() {
+            return "s3://" + bucket + "/" + chave;
+        }
+    }
+}
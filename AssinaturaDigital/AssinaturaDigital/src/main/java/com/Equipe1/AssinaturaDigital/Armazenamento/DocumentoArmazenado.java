@@ -0,0 +1,13 @@
+package com.Equipe1.AssinaturaDigital.Armazenamento;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Documento localizado no armazenamento. O caminho local só existe no backend de disco
+ * e permite o envio via sendfile; nos demais ele é nulo.
+ */
+public record DocumentoArmazenado(String chave, Resource recurso, long tamanho, Instant ultimaModificacao, Path caminhoLocal) {
+}
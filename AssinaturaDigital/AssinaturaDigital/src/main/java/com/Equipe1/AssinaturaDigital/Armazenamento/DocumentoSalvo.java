@@ -0,0 +1,7 @@
+package com.Equipe1.AssinaturaDigital.Armazenamento;
+
+/**
+ * Resultado da gravação de um documento: caminho lógico, SHA-256 (hex) e tamanho em bytes
+ */
+public record DocumentoSalvo(String caminho, String sha256, long tamanho) {
+}
@@ -0,0 +1,68 @@
+package com.Equipe1.AssinaturaDigital.Armazenamento;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Contador de referências de um PDF armazenado por conteúdo (chave = SHA-256)
+ */
+@Document(collection = "pdf_blobs")
+public class PdfBlobModel {
+
+    public enum Estado {
+        ATIVO,
+        REMOVENDO
+    }
+
+    @Id
+    private String id;
+    private long tamanho;
+    private long referencias;
+    private Estado estado = Estado.ATIVO;
+    private LocalDateTime atualizadoEm;
+
+    public PdfBlobModel() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getTamanho() {
+        return tamanho;
+    }
+
+    public void setTamanho(long tamanho) {
+        this.tamanho = tamanho;
+    }
+
+    public long getReferencias() {
+        return referencias;
+    }
+
+    public void setReferencias(long referencias) {
+        this.referencias = referencias;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public void setEstado(Estado estado) {
+        this.estado = estado;
+    }
+
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(LocalDateTime atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+}
@@ -0,0 +1,276 @@
+package com.Equipe1.AssinaturaDigital.Armazenamento;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Armazenamento de PDFs endereçado por conteúdo: PDFs idênticos são gravados uma única vez
+ * (nome do arquivo = SHA-256) e cada assinatura conta como uma referência ao mesmo blob.
+ * O upload é preparado num temporário local e depois entregue ao {@link ArmazenamentoDocumentos}.
+ */
+@Service
+public class PdfBlobService {
+
+    private static final String ARQUIVOS_PATH = "/arquivos/";
+    private static final String PDF_EXTENSION = ".pdf";
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    private static final byte[] CABECALHO_PDF = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_TENTATIVAS = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final ArmazenamentoDocumentos armazenamento;
+    private final Timer tempoGravacao;
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    // Blobs sem referência só são coletados depois deste intervalo sem uso
+    @Value("${app.pdf.gc.carencia:PT10M}")
+    private Duration carenciaColeta;
+
+    public PdfBlobService(MongoTemplate mongoTemplate, ArmazenamentoDocumentos armazenamento, MeterRegistry registry) {
+        this.mongoTemplate = mongoTemplate;
+        this.armazenamento = armazenamento;
+        this.tempoGravacao = Timer.builder("armazenamento.gravacao")
+                .description("Latência de gravação de documentos no armazenamento")
+                .tag("tipo", "pdf")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Grava o PDF (se ainda não existir) e registra uma nova referência a ele
+     */
+    public DocumentoSalvo armazenar(MultipartFile pdfFile) {
+        return armazenar(pdfFile, 1);
+    }
+
+    /**
+     * Grava o PDF uma única vez e registra várias referências de uma vez (criação em lote)
+     */
+    public DocumentoSalvo armazenar(MultipartFile pdfFile, int referencias) {
+        if (referencias < 1) {
+            throw new IllegalArgumentException("Quantidade de referências deve ser maior que zero");
+        }
+        Path diretorio = Paths.get(uploadDir, "tmp");
+        Path temporario = null;
+
+        try {
+            Files.createDirectories(diretorio);
+            temporario = Files.createTempFile(diretorio, "upload-", ".tmp");
+
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            long tamanho = copiarValidandoPdf(pdfFile, temporario, sha256);
+            String hash = HexFormat.of().formatHex(sha256.digest());
+
+            adquirirReferencias(hash, tamanho, referencias);
+
+            // Só o primeiro upload de um conteúdo precisa gravar o arquivo; os demais descartam o temporário
+            String caminho;
+            try {
+                caminho = caminhoLogico(hash);
+                String chave = ArmazenamentoDocumentos.chaveDe(caminho);
+                if (!armazenamento.existe(chave)) {
+                    long inicio = System.nanoTime();
+                    armazenamento.importar(chave, temporario);
+                    tempoGravacao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                }
+            } catch (IOException | RuntimeException e) {
+                // Qualquer falha depois de contar as referências as devolve, senão o blob nunca seria coletado
+                liberar(hash, referencias);
+                throw e;
+            }
+            return new DocumentoSalvo(caminho, hash, tamanho);
+        } catch (IOException e) {
+            throw new ArmazenamentoException("Erro ao salvar o PDF: " + pdfFile.getOriginalFilename(), e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        } finally {
+            apagarSilenciosamente(temporario);
+        }
+    }
+
+    /**
+     * Libera uma referência ao blob; quando não sobra nenhuma, o arquivo é removido
+     */
+    public void liberar(String sha256) {
+        liberar(sha256, 1);
+    }
+
+    /**
+     * Libera várias referências de uma vez (itens de um lote que não chegaram a ser gravados)
+     */
+    public void liberar(String sha256, int quantidade) {
+        if (quantidade < 1) {
+            return;
+        }
+        PdfBlobModel blob = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(sha256)),
+                new Update().inc("referencias", -quantidade).set("atualizadoEm", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                PdfBlobModel.class);
+
+        if (blob != null && blob.getReferencias() <= 0) {
+            coletar(sha256, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Indica se o caminho lógico aponta para um blob gerenciado por este serviço
+     */
+    public boolean ehBlob(String pdfPath, String sha256) {
+        return sha256 != null && caminhoLogico(sha256).equals(pdfPath);
+    }
+
+    /**
+     * Coleta periódica de blobs sem referência e de remoções interrompidas
+     */
+    @Scheduled(fixedDelayString = "${app.pdf.gc.intervalo:PT1H}", initialDelayString = "${app.pdf.gc.intervalo:PT1H}")
+    public void coletarOrfaos() {
+        LocalDateTime limite = LocalDateTime.now().minus(carenciaColeta);
+        Query orfaos = Query.query(new Criteria().orOperator(
+                Criteria.where("referencias").lte(0),
+                Criteria.where("estado").is(PdfBlobModel.Estado.REMOVENDO)))
+            .addCriteria(Criteria.where("atualizadoEm").lt(limite));
+        orfaos.fields().include("_id");
+
+        List<PdfBlobModel> candidatos = mongoTemplate.find(orfaos, PdfBlobModel.class);
+        for (PdfBlobModel candidato : candidatos) {
+            coletar(candidato.getId(), limite);
+        }
+    }
+
+    /**
+     * Caminho lógico do blob de um conteúdo (o mesmo gravado em pdfPath)
+     */
+    public String caminhoLogico(String sha256) {
+        return ARQUIVOS_PATH + sha256 + PDF_EXTENSION;
+    }
+
+    private long copiarValidandoPdf(MultipartFile pdfFile, Path destino, MessageDigest sha256) throws IOException {
+        byte[] cabecalho = new byte[CABECALHO_PDF.length];
+        byte[] buffer = new byte[TAMANHO_BUFFER];
+        long tamanho = 0;
+
+        try (InputStream entrada = pdfFile.getInputStream();
+             OutputStream saida = Files.newOutputStream(destino)) {
+            int lidos;
+            while ((lidos = entrada.read(buffer)) != -1) {
+                if (tamanho < cabecalho.length) {
+                    int copiar = (int) Math.min(lidos, cabecalho.length - tamanho);
+                    System.arraycopy(buffer, 0, cabecalho, (int) tamanho, copiar);
+                    if (tamanho + copiar == cabecalho.length && !Arrays.equals(cabecalho, CABECALHO_PDF)) {
+                        throw new IllegalArgumentException("Arquivo deve ser um PDF");
+                    }
+                }
+                sha256.update(buffer, 0, lidos);
+                saida.write(buffer, 0, lidos);
+                tamanho += lidos;
+            }
+        }
+
+        if (tamanho < CABECALHO_PDF.length) {
+            throw new IllegalArgumentException("Arquivo deve ser um PDF");
+        }
+        return tamanho;
+    }
+
+    /**
+     * Incrementa (ou cria) o contador do blob. Um blob em remoção não aceita novas
+     * referências: o upsert colide na chave e tentamos de novo depois que a remoção terminar.
+     */
+    private void adquirirReferencias(String sha256, long tamanho, int quantidade) {
+        Query ativo = Query.query(Criteria.where("_id").is(sha256).and("estado").ne(PdfBlobModel.Estado.REMOVENDO));
+        Update update = new Update()
+                .inc("referencias", quantidade)
+                .set("atualizadoEm", LocalDateTime.now())
+                .setOnInsert("tamanho", tamanho)
+                .setOnInsert("estado", PdfBlobModel.Estado.ATIVO);
+
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                mongoTemplate.upsert(ativo, update, PdfBlobModel.class);
+                return;
+            } catch (DuplicateKeyException e) {
+                if (tentativa >= MAX_TENTATIVAS) {
+                    throw new ArmazenamentoException("PDF em remoção, tente novamente: " + sha256, e);
+                }
+                aguardar(tentativa);
+            }
+        }
+    }
+
+    /**
+     * Remove o blob em duas fases: marca como REMOVENDO (bloqueando novas referências),
+     * apaga o arquivo e só então apaga o contador
+     */
+    private void coletar(String sha256, LocalDateTime limite) {
+        PdfBlobModel marcado = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(sha256).orOperator(
+                        Criteria.where("referencias").lte(0).and("estado").is(PdfBlobModel.Estado.ATIVO),
+                        Criteria.where("estado").is(PdfBlobModel.Estado.REMOVENDO).and("atualizadoEm").lte(limite))),
+                new Update().set("estado", PdfBlobModel.Estado.REMOVENDO).set("atualizadoEm", LocalDateTime.now()),
+                PdfBlobModel.class);
+
+        if (marcado == null) {
+            return;
+        }
+
+        try {
+            armazenamento.apagar(ArmazenamentoDocumentos.chaveDe(caminhoLogico(sha256)));
+        } catch (IOException e) {
+            // Fica em REMOVENDO e a coleta periódica tenta de novo
+            return;
+        }
+        mongoTemplate.remove(
+                Query.query(Criteria.where("_id").is(sha256).and("estado").is(PdfBlobModel.Estado.REMOVENDO)),
+                PdfBlobModel.class);
+    }
+
+    private void apagarSilenciosamente(Path arquivo) {
+        if (arquivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException ignored) {
+            // o arquivo temporário órfão não compromete a assinatura
+        }
+    }
+
+    private void aguardar(int tentativa) {
+        try {
+            Thread.sleep(50L * tentativa);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ArmazenamentoException("Interrompido aguardando remoção do PDF");
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.Equipe1.AssinaturaDigital.Infra.Security.LinkPublicoFilter;
+import com.Equipe1.AssinaturaDigital.Infra.Security.TokenAssinaturaService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Regras das rotas públicas de assinatura compartilhadas pelos controllers servlet e reativo:
+ * tradução do token em id, quem ainda precisa ter a validade do link consultada, montagem da
+ * resposta do PDF e tradução das falhas de confirmação em status HTTP.
+ */
+final class AcessoPublico {
+
+    private static final Logger log = LoggerFactory.getLogger(AcessoPublico.class);
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private AcessoPublico() {
+    }
+
+    // O LinkPublicoFilter já validou o token; aqui ele só é traduzido para o id da assinatura
+    static String resolverId(String idOuToken, HttpServletRequest request) {
+        return LinkPublicoFilter.tokenDa(request)
+            .map(TokenAssinaturaService.TokenAssinatura::assinaturaId)
+            .orElse(idOuToken);
+    }
+
+    // Hash do PDF trazido no token: o arquivo sai do armazenamento após uma consulta só ao índice de _id
+    static String pdfSha256(HttpServletRequest request) {
+        return LinkPublicoFilter.tokenDa(request)
+            .map(TokenAssinaturaService.TokenAssinatura::pdfSha256)
+            .orElse(null);
+    }
+
+    // Com token a validade já foi conferida pelo filtro; só cliente sem login usando o id cru
+    // precisa da consulta. Deve ser avaliado na thread da requisição (contexto de segurança).
+    static boolean conferirValidade(HttpServletRequest request) {
+        if (LinkPublicoFilter.tokenDa(request).isPresent()) {
+            return false;
+        }
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        boolean funcionario = autenticacao != null && autenticacao.isAuthenticated()
+                && !(autenticacao instanceof AnonymousAuthenticationToken);
+        return !funcionario;
+    }
+
+    // Cliente sem login com link vencido recebe 410 antes de qualquer leitura do documento completo
+    static boolean linkExpiradoParaPublico(String id, HttpServletRequest request, AssinaturaService assinaturaService) {
+        return conferirValidade(request) && assinaturaService.linkExpirado(id);
+    }
+
+    /**
+     * Resposta do PDF com cache condicional e Range. Com sendfile o Tomcat envia o arquivo via
+     * FileChannel.transferTo, sem cópia para o heap; só vale para respostas síncronas.
+     */
+    static ResponseEntity<Resource> respostaPdf(ArquivoDownload pdf, String id, ServletWebRequest webRequest,
+                                                MetricasAssinatura metricas, boolean permitirSendfile) {
+        // If-None-Match / If-Modified-Since: responde 304 sem tocar no arquivo
+        if (webRequest.checkNotModified(pdf.etag(), pdf.ultimaModificacao().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        HttpServletRequest request = webRequest.getRequest();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDisposition(ContentDisposition.inline().filename("documento-" + id + ".pdf").build());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setETag(pdf.etag());
+        headers.setLastModified(pdf.ultimaModificacao());
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+
+        boolean semRange = request.getHeader(HttpHeaders.RANGE) == null;
+        if (semRange) {
+            metricas.registrarBytes("pdf", "download", pdf.tamanho());
+        }
+        if (permitirSendfile && pdf.caminho() != null && semRange
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, pdf.caminho().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, pdf.tamanho());
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .contentLength(pdf.tamanho())
+                    .build();
+        }
+
+        // Com Range (ou fora do Tomcat) o Spring serve o Resource em blocos, gerando 206 quando necessário
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(pdf.recurso());
+    }
+
+    // CPF que não confere é 401; problema na selfie é da imagem enviada (400, ou 413 se grande demais)
+    static ResponseEntity<?> respostaFalhaConfirmacao(Throwable e) {
+        if (e instanceof SelfieService.SelfieGrandeDemaisException) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        }
+        if (e instanceof SelfieService.SelfieInvalidaException) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (e instanceof IllegalArgumentException) {
+            return ResponseEntity.status(401).body(e.getMessage());
+        }
+        if (e instanceof AssinaturaService.LinkExpiradoException) {
+            return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
+        }
+        if (e instanceof AssinaturaService.ConflitoTransicaoException) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+        if (e instanceof SelfieService.SelfieIndisponivelException) {
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "5").body(e.getMessage());
+        }
+        log.error("Erro ao confirmar assinatura", e);
+        return ResponseEntity.status(500).body("Erro interno ao confirmar assinatura");
+    }
+}
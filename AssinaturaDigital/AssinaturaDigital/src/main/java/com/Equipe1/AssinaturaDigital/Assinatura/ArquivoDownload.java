@@ -0,0 +1,27 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+import org.springframework.core.io.Resource;
+
+import com.Equipe1.AssinaturaDigital.Armazenamento.DocumentoArmazenado;
+
+/**
+ * Arquivo pronto para download, com os metadados usados em ETag/Last-Modified.
+ * O caminho só é preenchido quando o arquivo está em disco local (envio via sendfile).
+ */
+public record ArquivoDownload(Path caminho, Resource recurso, long tamanho, Instant ultimaModificacao, String etag) {
+
+    public static ArquivoDownload deDocumento(DocumentoArmazenado documento) {
+        return new ArquivoDownload(documento.caminhoLocal(), documento.recurso(), documento.tamanho(),
+                documento.ultimaModificacao(),
+                gerarEtag(documento.chave(), documento.tamanho(), documento.ultimaModificacao()));
+    }
+
+    // ETag forte derivado apenas dos metadados: não exige ler o conteúdo do arquivo
+    static String gerarEtag(String nome, long tamanho, Instant ultimaModificacao) {
+        return "\"" + Integer.toHexString(nome.hashCode()) + "-" + Long.toHexString(tamanho)
+                + "-" + Long.toHexString(ultimaModificacao.toEpochMilli()) + "\"";
+    }
+}
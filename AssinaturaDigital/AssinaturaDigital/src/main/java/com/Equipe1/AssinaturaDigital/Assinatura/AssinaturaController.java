@@ -1,20 +1,26 @@
 package com.Equipe1.AssinaturaDigital.Assinatura;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
-
-import com.Equipe1.AssinaturaDigital.Infra.Security.DTO.AssinaturaConfirmacaoRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -22,10 +28,17 @@ import jakarta.servlet.http.HttpServletRequest;
 @RequestMapping("/Assinaturas")
 public class AssinaturaController {
 
+    private static final Logger log = LoggerFactory.getLogger(AssinaturaController.class);
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final MediaType APPLICATION_NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
     private final AssinaturaService assinaturaService;
+    private final ExportacaoAssinaturaService exportacaoService;
 
-    public AssinaturaController(AssinaturaService assinatura) {
+    public AssinaturaController(AssinaturaService assinatura, ExportacaoAssinaturaService exportacaoService) {
         this.assinaturaService = assinatura;
+        this.exportacaoService = exportacaoService;
     }
 
     // Listar todas as assinaturas (protegido)
@@ -34,6 +47,53 @@ public class AssinaturaController {
         return ResponseEntity.ok(assinaturaService.listarAssinatura());
     }
 
+    // Listar assinaturas por página, com cursor e projeção de campos (protegido)
+    @GetMapping("/pagina")
+    public ResponseEntity<?> listarAssinaturasPaginadas(
+            @RequestParam(required = false) StatusAssinatura status,
+            @RequestParam(required = false) String clienteId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(defaultValue = "desc") String ordem,
+            @RequestParam(required = false) String campos,
+            @RequestParam(required = false) String ordenarPor) {
+        try {
+            return ResponseEntity.ok(assinaturaService.listarPagina(status, clienteId, cursor, tamanho,
+                    "desc".equalsIgnoreCase(ordem), campos, ordenarPor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Exportar assinaturas em NDJSON ou CSV, escritas direto do cursor do Mongo (protegido)
+    @GetMapping("/exportar")
+    public ResponseEntity<?> exportarAssinaturas(
+            @RequestParam(defaultValue = "ndjson") String formato,
+            @RequestParam(required = false) StatusAssinatura status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @RequestParam(required = false) String clienteId,
+            @RequestParam(required = false) String cenarioId,
+            @RequestParam(required = false) String campos) {
+        ExportacaoAssinaturaService.Formato formatoExportacao;
+        ExportacaoAssinaturaService.Filtro filtro;
+        try {
+            formatoExportacao = ExportacaoAssinaturaService.Formato.valueOf(formato.toUpperCase());
+            filtro = exportacaoService.criarFiltro(status, de, ate, clienteId, cenarioId, campos);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        boolean csv = formatoExportacao == ExportacaoAssinaturaService.Formato.CSV;
+        StreamingResponseBody corpo = saida -> exportacaoService.exportar(filtro, formatoExportacao, saida);
+
+        return ResponseEntity.ok()
+            .contentType(csv ? TEXT_CSV : APPLICATION_NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(csv ? "assinaturas.csv" : "assinaturas.ndjson").build().toString())
+            .body(corpo);
+    }
+
     // Buscar assinatura por ID (protegido)
     @GetMapping("/{id}")
     public ResponseEntity<AssinaturaModel> buscarPorId(@PathVariable String id) {
@@ -42,20 +102,14 @@ public class AssinaturaController {
             .orElse(ResponseEntity.notFound().build());
     }
 
-    // Endpoint público para visualizar assinatura
-    @GetMapping("/{id}/publica")
-    public ResponseEntity<AssinaturaModel> buscarAssinaturaPublica(@PathVariable String id) {
-        return assinaturaService.buscarAssinatura(id)
-            .map(ResponseEntity::ok)
-            .orElse(ResponseEntity.notFound().build());
-    }
-
     // Gerar link de assinatura (protegido)
     @PostMapping("/{id}/gerar-link")
-    public ResponseEntity<AssinaturaModel> gerarLink(@PathVariable String id) {
+    public ResponseEntity<?> gerarLink(@PathVariable String id) {
         try {
             AssinaturaModel assinatura = assinaturaService.gerarLinkAssinatura(id);
             return ResponseEntity.ok(assinatura);
+        } catch (AssinaturaService.ConflitoTransicaoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -63,29 +117,30 @@ public class AssinaturaController {
 
     // Marcar como assinada (público - cliente não tem login)
     @PostMapping("/{id}/assinar")
-    public ResponseEntity<AssinaturaModel> marcarComoAssinada(@PathVariable String id) {
+    public ResponseEntity<?> marcarComoAssinada(@PathVariable("id") String idOuToken, HttpServletRequest request) {
+        String id = AcessoPublico.resolverId(idOuToken, request);
+        if (AcessoPublico.linkExpiradoParaPublico(id, request, assinaturaService)) {
+            return ResponseEntity.status(HttpStatus.GONE).body("Link de assinatura expirado");
+        }
         try {
             AssinaturaModel assinatura = assinaturaService.marcarComoAssinada(id);
             return ResponseEntity.ok(assinatura);
+        } catch (AssinaturaService.LinkExpiradoException e) {
+            return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
+        } catch (AssinaturaService.ConflitoTransicaoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
     }
 
-    // Servir PDF da assinatura (público)
-    @GetMapping("/{id}/pdf")
-    public ResponseEntity<byte[]> obterPdfAssinatura(@PathVariable String id) {
+    // Excluir assinatura (protegido)
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> apagarAssinatura(@PathVariable String id) {
         try {
-            byte[] pdfBytes = assinaturaService.obterPdfBytes(id);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("inline", "documento-" + id + ".pdf");
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(pdfBytes);
-        } catch (Exception e) {
+            assinaturaService.apagarAssinatura(id);
+            return ResponseEntity.noContent().build();
+        } catch (AssinaturaService.AssinaturaException e) {
             return ResponseEntity.notFound().build();
         }
     }
@@ -105,27 +160,23 @@ public class AssinaturaController {
         @RequestParam(required = false) String cenarioId, // ✅ Opcional
         @RequestParam("pdf") MultipartFile pdfFile
     ) {
-        System.out.println("=== BACKEND DEBUG ===");
-        System.out.println("ClienteId: " + clienteId);
-        System.out.println("TermoId: " + termoId);
-        System.out.println("CenarioId: " + cenarioId);
-        System.out.println("Pdf original filename: " + pdfFile.getOriginalFilename());
-        System.out.println("Pdf size: " + pdfFile.getSize() + " bytes");
+        log.debug("Criando assinatura: clienteId={} termoId={} cenarioId={} pdfTamanho={}",
+            clienteId, termoId, cenarioId, pdfFile.getSize());
         
         try {
             // ✅ VALIDAÇÕES BÁSICAS
             if (clienteId == null || clienteId.trim().isEmpty()) {
-                System.err.println("❌ ClienteId é obrigatório");
+                log.debug("Criação de assinatura rejeitada: clienteId ausente");
                 return ResponseEntity.badRequest().build();
             }
             
             if (termoId == null || termoId.trim().isEmpty()) {
-                System.err.println("❌ TermoId é obrigatório");
+                log.debug("Criação de assinatura rejeitada: termoId ausente");
                 return ResponseEntity.badRequest().build();
             }
             
             if (pdfFile == null || pdfFile.isEmpty()) {
-                System.err.println("❌ Arquivo PDF é obrigatório");
+                log.debug("Criação de assinatura rejeitada: PDF ausente");
                 return ResponseEntity.badRequest().build();
             }
             
@@ -133,9 +184,6 @@ public class AssinaturaController {
             String cenarioIdProcessado = null;
             if (cenarioId != null && !cenarioId.trim().isEmpty()) {
                 cenarioIdProcessado = cenarioId.trim();
-                System.out.println("✅ CenarioId processado: " + cenarioIdProcessado);
-            } else {
-                System.out.println("✅ CenarioId não fornecido - será null");
             }
             
             // ✅ CHAMAR O SERVICE COM PARÂMETRO TRATADO
@@ -146,34 +194,38 @@ public class AssinaturaController {
                 pdfFile
             );
             
-            System.out.println("✅ Assinatura criada com sucesso: " + novaAssinatura.getId());
+            log.info("Assinatura criada: {}", novaAssinatura.getId());
             return ResponseEntity.ok(novaAssinatura);
             
         } catch (IllegalArgumentException e) {
-            System.err.println("❌ Erro de validação: " + e.getMessage());
-            e.printStackTrace();
+            log.debug("Criação de assinatura rejeitada: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         } catch (Exception e) {
-            System.err.println("❌ Erro interno: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Erro ao criar assinatura", e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
-    @PostMapping("/{id}/confirmar")
-    public ResponseEntity<?> confirmarAssinatura(
-            @PathVariable String id,
-            @RequestBody AssinaturaConfirmacaoRequest request,
-            HttpServletRequest servletRequest) {
-
+    // Criação em lote: um PDF para vários clientes (clienteIds) ou para os clientes de um cenário
+    @PostMapping(value = "/lote", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> criarAssinaturasEmLote(
+            @RequestParam String termoId,
+            @RequestParam(required = false) List<String> clienteIds,
+            @RequestParam(required = false) String cenarioId,
+            @RequestParam(defaultValue = "false") boolean gerarLinks,
+            @RequestParam("pdf") MultipartFile pdfFile) {
         try {
-            String ip = servletRequest.getRemoteAddr();
-            AssinaturaModel assinaturaConfirmada = assinaturaService.confirmarAssinatura(id, request, ip);
-            return ResponseEntity.ok(assinaturaConfirmada);
+            String cenario = cenarioId == null || cenarioId.isBlank() ? null : cenarioId.trim();
+            ResultadoLote resultado = assinaturaService.criarAssinaturasEmLote(termoId.trim(), cenario, clienteIds,
+                gerarLinks, pdfFile);
+            log.info("Lote de assinaturas criado: {} criadas, {} falhas", resultado.criadas(), resultado.falhas());
+            return ResponseEntity.ok(resultado);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(401).body(e.getMessage());
+            log.debug("Criação em lote rejeitada: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
-            return ResponseEntity.status(500).body("Erro interno ao confirmar assinatura");
+            log.error("Erro ao criar lote de assinaturas", e);
+            return ResponseEntity.internalServerError().build();
         }
     }
-}
\ No newline at end of file
+}
@@ -21,14 +21,16 @@ public class AssinaturaModel {
     private String ip;
     private String localizacao;
     private String pdfPath;
-    private String selfieBase64;       // nova
+    private String pdfSha256;          // impressão digital do PDF enviado
+    private Long pdfTamanho;           // em bytes
     private String cpfInformado;       // novo
     @Column(name = "selfie_path")
-    private String selfiePath;
+    private String selfiePath;         // a imagem fica no armazenamento de documentos, não no Mongo
+    private String selfieSha256;
 
 
     public AssinaturaModel(String id, String clienteId, String termoId, String cenarioId, LocalDateTime dataAssinatura,
-            String ip, String localizacao, String pdfPath, String selfieBase64, String cpfInformado,
+            String ip, String localizacao, String pdfPath, String cpfInformado,
             StatusAssinatura status, String linkAssinatura, LocalDateTime dataEnvioLink) {
         this.id = id;
         this.clienteId = clienteId;
@@ -38,7 +40,6 @@ public class AssinaturaModel {
         this.ip = ip;
         this.localizacao = localizacao;
         this.pdfPath = pdfPath;
-        this.selfieBase64 = selfieBase64;
         this.cpfInformado = cpfInformado;
         this.status = status;
         this.linkAssinatura = linkAssinatura;
@@ -53,6 +54,22 @@ public class AssinaturaModel {
         this.pdfPath = pdfPath;
     }
 
+    public String getPdfSha256() {
+        return pdfSha256;
+    }
+
+    public void setPdfSha256(String pdfSha256) {
+        this.pdfSha256 = pdfSha256;
+    }
+
+    public Long getPdfTamanho() {
+        return pdfTamanho;
+    }
+
+    public void setPdfTamanho(Long pdfTamanho) {
+        this.pdfTamanho = pdfTamanho;
+    }
+
     public StatusAssinatura getStatus() {
         return status;
     }
@@ -77,11 +94,20 @@ public class AssinaturaModel {
         this.dataEnvioLink = dataEnvioLink;
     }
 
+    public LocalDateTime getExpiraEm() {
+        return expiraEm;
+    }
+
+    public void setExpiraEm(LocalDateTime expiraEm) {
+        this.expiraEm = expiraEm;
+    }
+
     @Enumerated(EnumType.STRING)
     private StatusAssinatura status = StatusAssinatura.CRIADA;
     
     private String linkAssinatura; // URL gerada para o cliente
     private LocalDateTime dataEnvioLink;
+    private LocalDateTime expiraEm;    // validade do link; depois disso a varredura marca EXPIRADA
 
     // Construtores, getters e setters
 
@@ -144,14 +170,6 @@ public class AssinaturaModel {
         this.localizacao = localizacao;
     }
 
-    public String getSelfieBase64() {
-        return selfieBase64;
-    }
-
-    public void setSelfieBase64(String selfieBase64) {
-        this.selfieBase64 = selfieBase64;
-    }
-
     public String getCpfInformado() {
         return cpfInformado;
     }
@@ -166,4 +184,12 @@ public class AssinaturaModel {
     public void setSelfiePath(String selfiePath) {
         this.selfiePath = selfiePath;
     }
+
+    public String getSelfieSha256() {
+        return selfieSha256;
+    }
+
+    public void setSelfieSha256(String selfieSha256) {
+        this.selfieSha256 = selfieSha256;
+    }
 }
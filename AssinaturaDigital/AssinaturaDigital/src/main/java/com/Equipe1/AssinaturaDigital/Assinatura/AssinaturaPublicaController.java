@@ -0,0 +1,111 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import java.util.function.Supplier;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.Equipe1.AssinaturaDigital.Infra.Security.DTO.AssinaturaConfirmacaoRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Fluxo público do cliente (visualizar, baixar o PDF e confirmar) no modelo servlet bloqueante.
+ * No perfil "reativo" as mesmas rotas são atendidas por {@link AssinaturaPublicaReativaController}.
+ */
+@RestController
+@RequestMapping("/Assinaturas")
+@Profile("!reativo")
+public class AssinaturaPublicaController {
+
+    private final AssinaturaService assinaturaService;
+    private final MetricasAssinatura metricas;
+
+    public AssinaturaPublicaController(AssinaturaService assinaturaService, MetricasAssinatura metricas) {
+        this.assinaturaService = assinaturaService;
+        this.metricas = metricas;
+    }
+
+    // Endpoint público para visualizar assinatura ({id} é o token do link; id cru só com login)
+    @GetMapping("/{id}/publica")
+    public ResponseEntity<AssinaturaModel> buscarAssinaturaPublica(@PathVariable("id") String idOuToken,
+                                                                   HttpServletRequest request) {
+        String id = AcessoPublico.resolverId(idOuToken, request);
+        if (AcessoPublico.linkExpiradoParaPublico(id, request, assinaturaService)) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        return assinaturaService.buscarAssinatura(id)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Servir PDF da assinatura (público) em streaming, com suporte a Range e cache condicional
+    @GetMapping("/{id}/pdf")
+    public ResponseEntity<Resource> obterPdfAssinatura(@PathVariable("id") String idOuToken, ServletWebRequest webRequest) {
+        HttpServletRequest request = webRequest.getRequest();
+        String id = AcessoPublico.resolverId(idOuToken, request);
+        if (AcessoPublico.linkExpiradoParaPublico(id, request, assinaturaService)) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        try {
+            String pdfSha256 = AcessoPublico.pdfSha256(request);
+            ArquivoDownload pdf = pdfSha256 != null
+                ? assinaturaService.obterPdfPorHash(id, pdfSha256)
+                : assinaturaService.obterPdf(id);
+            return AcessoPublico.respostaPdf(pdf, id, webRequest, metricas, true);
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/{id}/confirmar")
+    public ResponseEntity<?> confirmarAssinatura(
+            @PathVariable("id") String idOuToken,
+            @RequestBody AssinaturaConfirmacaoRequest request,
+            HttpServletRequest servletRequest) {
+
+        String id = AcessoPublico.resolverId(idOuToken, servletRequest);
+        String ip = servletRequest.getRemoteAddr();
+        return responderConfirmacao(id, servletRequest, () -> assinaturaService.confirmarAssinatura(id, request, ip));
+    }
+
+    // Confirmação com a selfie como arquivo binário (multipart/form-data), sem o custo do base64
+    @PostMapping(value = "/{id}/confirmar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> confirmarAssinaturaMultipart(
+            @PathVariable("id") String idOuToken,
+            @RequestParam String cpfInformado,
+            @RequestParam(required = false) String localizacao,
+            @RequestPart("selfie") MultipartFile selfie,
+            HttpServletRequest servletRequest) {
+
+        String id = AcessoPublico.resolverId(idOuToken, servletRequest);
+        String ip = servletRequest.getRemoteAddr();
+        return responderConfirmacao(id, servletRequest,
+            () -> assinaturaService.confirmarAssinatura(id, cpfInformado, localizacao, selfie, ip));
+    }
+
+    private ResponseEntity<?> responderConfirmacao(String id, HttpServletRequest request,
+                                                   Supplier<AssinaturaModel> confirmacao) {
+        if (AcessoPublico.linkExpiradoParaPublico(id, request, assinaturaService)) {
+            return ResponseEntity.status(HttpStatus.GONE).body("Link de assinatura expirado");
+        }
+        try {
+            return ResponseEntity.ok(confirmacao.get());
+        } catch (Exception e) {
+            return AcessoPublico.respostaFalhaConfirmacao(e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import java.util.function.Supplier;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.Equipe1.AssinaturaDigital.Infra.Security.DTO.AssinaturaConfirmacaoRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import reactor.core.publisher.Mono;
+
+/**
+ * Fluxo público do cliente (visualizar, baixar o PDF e confirmar) no perfil "reativo". Os
+ * handlers devolvem Mono e o Spring MVC os atende como requisições assíncronas: a thread do
+ * Tomcat volta ao pool enquanto o driver reativo do Mongo espera o banco, e só o envio da
+ * resposta ocupa uma thread de novo. Token, validade e contexto de segurança são resolvidos
+ * antes do Mono, ainda na thread da requisição.
+ */
+@RestController
+@RequestMapping("/Assinaturas")
+@Profile("reativo")
+public class AssinaturaPublicaReativaController {
+
+    private final AssinaturaPublicaReativaService assinaturaService;
+    private final MetricasAssinatura metricas;
+
+    public AssinaturaPublicaReativaController(AssinaturaPublicaReativaService assinaturaService,
+                                              MetricasAssinatura metricas) {
+        this.assinaturaService = assinaturaService;
+        this.metricas = metricas;
+    }
+
+    @GetMapping("/{id}/publica")
+    public Mono<ResponseEntity<AssinaturaModel>> buscarAssinaturaPublica(@PathVariable("id") String idOuToken,
+                                                                         HttpServletRequest request) {
+        String id = AcessoPublico.resolverId(idOuToken, request);
+        return linkExpirado(id, request).flatMap(expirado -> expirado
+            ? Mono.just(ResponseEntity.status(HttpStatus.GONE).<AssinaturaModel>build())
+            : assinaturaService.buscarAssinatura(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build()));
+    }
+
+    // Sem sendfile: a resposta é escrita no despacho assíncrono, em blocos, com Range e cache condicional
+    @GetMapping("/{id}/pdf")
+    public Mono<ResponseEntity<Resource>> obterPdfAssinatura(@PathVariable("id") String idOuToken,
+                                                             ServletWebRequest webRequest) {
+        HttpServletRequest request = webRequest.getRequest();
+        String id = AcessoPublico.resolverId(idOuToken, request);
+        String pdfSha256 = AcessoPublico.pdfSha256(request);
+        return linkExpirado(id, request).flatMap(expirado -> {
+            if (expirado) {
+                return Mono.just(ResponseEntity.status(HttpStatus.GONE).<Resource>build());
+            }
+            Mono<ArquivoDownload> pdf = pdfSha256 != null
+                ? assinaturaService.obterPdfPorHash(id, pdfSha256)
+                : assinaturaService.obterPdf(id);
+            return pdf
+                .map(arquivo -> AcessoPublico.respostaPdf(arquivo, id, webRequest, metricas, false))
+                .onErrorResume(e -> Mono.just(ResponseEntity.notFound().build()));
+        });
+    }
+
+    @PostMapping("/{id}/confirmar")
+    public Mono<ResponseEntity<?>> confirmarAssinatura(
+            @PathVariable("id") String idOuToken,
+            @RequestBody AssinaturaConfirmacaoRequest request,
+            HttpServletRequest servletRequest) {
+
+        String id = AcessoPublico.resolverId(idOuToken, servletRequest);
+        String ip = servletRequest.getRemoteAddr();
+        return responderConfirmacao(id, servletRequest, () -> assinaturaService.confirmarAssinatura(id, request, ip));
+    }
+
+    // A selfie multipart já foi recebida pelo Tomcat em disco antes do handler
+    @PostMapping(value = "/{id}/confirmar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<?>> confirmarAssinaturaMultipart(
+            @PathVariable("id") String idOuToken,
+            @RequestParam String cpfInformado,
+            @RequestParam(required = false) String localizacao,
+            @RequestPart("selfie") MultipartFile selfie,
+            HttpServletRequest servletRequest) {
+
+        String id = AcessoPublico.resolverId(idOuToken, servletRequest);
+        String ip = servletRequest.getRemoteAddr();
+        return responderConfirmacao(id, servletRequest,
+            () -> assinaturaService.confirmarAssinatura(id, cpfInformado, localizacao, selfie, ip));
+    }
+
+    private Mono<ResponseEntity<?>> responderConfirmacao(String id, HttpServletRequest request,
+                                                         Supplier<Mono<AssinaturaModel>> confirmacao) {
+        return linkExpirado(id, request).flatMap(expirado -> expirado
+            ? Mono.just(ResponseEntity.status(HttpStatus.GONE).body("Link de assinatura expirado"))
+            : confirmacao.get()
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(AcessoPublico.respostaFalhaConfirmacao(e))));
+    }
+
+    // A decisão de conferir a validade usa o contexto de segurança, então é tomada aqui, fora do Mono
+    private Mono<Boolean> linkExpirado(String id, HttpServletRequest request) {
+        return AcessoPublico.conferirValidade(request) ? assinaturaService.linkExpirado(id) : Mono.just(false);
+    }
+}
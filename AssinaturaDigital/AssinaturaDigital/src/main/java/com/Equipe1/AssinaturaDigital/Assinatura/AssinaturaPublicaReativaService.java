@@ -0,0 +1,210 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.Equipe1.AssinaturaDigital.Armazenamento.DocumentoSalvo;
+import com.Equipe1.AssinaturaDigital.Cliente.ClienteModel;
+import com.Equipe1.AssinaturaDigital.Cliente.ClienteService;
+import com.Equipe1.AssinaturaDigital.Infra.Security.DTO.AssinaturaConfirmacaoRequest;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Fluxo público de assinatura (visualizar, baixar o PDF e confirmar) sobre o driver reativo do
+ * Mongo: nenhuma thread fica parada esperando o banco. O que continua bloqueante (abrir o arquivo
+ * no armazenamento, normalizar e gravar a selfie, atualizar os contadores) roda no boundedElastic,
+ * nunca nas threads do driver. As regras de transição são as mesmas do {@link AssinaturaService}.
+ */
+@Service
+@Profile("reativo")
+public class AssinaturaPublicaReativaService {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final AssinaturaService assinaturaService;
+    private final SelfieService selfieService;
+    private final ContadoresAssinatura contadores;
+    private final MetricasAssinatura metricas;
+    private final ClienteService clienteService;
+
+    public AssinaturaPublicaReativaService(ReactiveMongoTemplate mongoTemplate, AssinaturaService assinaturaService,
+                                           SelfieService selfieService, ContadoresAssinatura contadores,
+                                           MetricasAssinatura metricas, ClienteService clienteService) {
+        this.mongoTemplate = mongoTemplate;
+        this.assinaturaService = assinaturaService;
+        this.selfieService = selfieService;
+        this.contadores = contadores;
+        this.metricas = metricas;
+        this.clienteService = clienteService;
+    }
+
+    public Mono<AssinaturaModel> buscarAssinatura(String id) {
+        if (!StringUtils.hasText(id)) {
+            return Mono.empty();
+        }
+        return mongoTemplate.findById(id, AssinaturaModel.class);
+    }
+
+    /**
+     * Indica se o link da assinatura venceu, lendo só status e expiraEm
+     */
+    public Mono<Boolean> linkExpirado(String id) {
+        if (!StringUtils.hasText(id)) {
+            return Mono.just(false);
+        }
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("status", "expiraEm");
+        return mongoTemplate.findOne(query, AssinaturaModel.class)
+            .map(AssinaturaService::expirado)
+            .defaultIfEmpty(false);
+    }
+
+    /**
+     * PDF servido pelo hash do token, depois de conferir pelo driver reativo que a assinatura
+     * existe, não foi recusada nem cancelada e ainda aponta para esse PDF
+     */
+    public Mono<ArquivoDownload> obterPdfPorHash(String id, String pdfSha256) {
+        return mongoTemplate.exists(AssinaturaService.consultaPdfPublico(id, pdfSha256), AssinaturaModel.class)
+            .flatMap(disponivel -> disponivel
+                ? bloqueante(() -> assinaturaService.obterPdfPorCaminho(assinaturaService.caminhoPdf(pdfSha256)))
+                : Mono.error(new AssinaturaService.AssinaturaException("PDF indisponível para esta assinatura")));
+    }
+
+    /**
+     * PDF da assinatura: o caminho vem de uma projeção lida pelo driver reativo
+     */
+    public Mono<ArquivoDownload> obterPdf(String id) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("pdfPath");
+        return mongoTemplate.findOne(query, AssinaturaModel.class)
+            .switchIfEmpty(Mono.error(() -> new AssinaturaService.AssinaturaException("Assinatura não encontrada: " + id)))
+            .flatMap(assinatura -> StringUtils.hasText(assinatura.getPdfPath())
+                ? bloqueante(() -> assinaturaService.obterPdfPorCaminho(assinatura.getPdfPath()))
+                : Mono.error(new AssinaturaService.AssinaturaException("PDF não encontrado para esta assinatura")));
+    }
+
+    /**
+     * Confirma assinatura com validação de CPF e salva selfie como JPG (selfie em base64 no JSON)
+     */
+    public Mono<AssinaturaModel> confirmarAssinatura(String id, AssinaturaConfirmacaoRequest request, String ip) {
+        return Mono.defer(() -> {
+            if (request == null) {
+                return Mono.error(new IllegalArgumentException("Request de confirmação não pode ser nulo"));
+            }
+            AssinaturaService.validarCpfInformado(request.getCpfInformado());
+            if (request.getSelfieBase64() != null) {
+                metricas.registrarBytes("selfie", "upload", request.getSelfieBase64().length() / 4L * 3L);
+            }
+            return confirmar(id, request.getCpfInformado(), request.getLocalizacao(), ip,
+                StringUtils.hasText(request.getSelfieBase64()),
+                () -> selfieService.salvarSelfieComoJpg(request.getSelfieBase64(), id));
+        });
+    }
+
+    /**
+     * Confirma assinatura recebendo a selfie como arquivo binário (multipart), sem base64
+     */
+    public Mono<AssinaturaModel> confirmarAssinatura(String id, String cpfInformado, String localizacao,
+                                                     MultipartFile selfie, String ip) {
+        return Mono.defer(() -> {
+            AssinaturaService.validarCpfInformado(cpfInformado);
+            if (selfie != null) {
+                metricas.registrarBytes("selfie", "upload", selfie.getSize());
+            }
+            return confirmar(id, cpfInformado, localizacao, ip,
+                selfie != null && !selfie.isEmpty(),
+                () -> selfieService.salvarSelfieComoJpg(selfie, id));
+        });
+    }
+
+    private Mono<AssinaturaModel> confirmar(String id, String cpfInformado, String localizacao, String ip,
+                                            boolean selfieInformada, Callable<DocumentoSalvo> gravarSelfie) {
+        Mono<AssinaturaModel> confirmacao = buscarAssinatura(id)
+            .switchIfEmpty(Mono.error(() -> new AssinaturaService.AssinaturaException("Assinatura não encontrada: " + id)))
+            .flatMap(assinatura -> {
+                if (AssinaturaService.expirado(assinatura)) {
+                    return Mono.error(new AssinaturaService.LinkExpiradoException(id));
+                }
+                // Reenvio de uma confirmação já aplicada: responde conflito antes de processar a selfie
+                if (!MaquinaEstadosAssinatura.permite(assinatura.getStatus(), StatusAssinatura.CONFIRMADA)) {
+                    return Mono.error(new AssinaturaService.ConflitoTransicaoException(
+                        id, assinatura.getStatus(), StatusAssinatura.CONFIRMADA));
+                }
+                return cpfDoCliente(assinatura.getClienteId());
+            })
+            .flatMap(cpfEsperado -> {
+                if (!AssinaturaService.validarCpf(cpfEsperado.orElse(null), cpfInformado)) {
+                    return Mono.error(new IllegalArgumentException("CPF informado não confere com o cliente."));
+                }
+                if (!selfieInformada) {
+                    return Mono.error(new SelfieService.SelfieInvalidaException("Selfie é obrigatória para confirmação."));
+                }
+                // Decodifica, normaliza e grava a selfie uma única vez (CPU + armazenamento)
+                return bloqueante(gravarSelfie);
+            })
+            .flatMap(selfie -> transicionar(id, StatusAssinatura.CONFIRMADA,
+                    AssinaturaService.dadosConfirmacao(cpfInformado, localizacao, ip, selfie))
+                .onErrorResume(AssinaturaService.ConflitoTransicaoException.class, e ->
+                    // Outra confirmação venceu a corrida: a selfie desta fica sem dono
+                    Mono.fromRunnable(() -> assinaturaService.apagarDocumentoSilenciosamente(selfie.caminho()))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .then(Mono.error(e))));
+        return metricas.medir("confirmar", confirmacao);
+    }
+
+    /**
+     * Mesmo findAndModify condicionado ao status do {@link AssinaturaService}, pelo driver reativo
+     */
+    private Mono<AssinaturaModel> transicionar(String id, StatusAssinatura destino, Update campos) {
+        campos.set("status", destino);
+        return mongoTemplate.findAndModify(
+                Query.query(AssinaturaService.condicaoTransicao(id, destino)),
+                campos,
+                FindAndModifyOptions.options().returnNew(false),
+                AssinaturaModel.class)
+            .switchIfEmpty(Mono.defer(() -> buscarAssinatura(id)
+                .switchIfEmpty(Mono.error(() -> new AssinaturaService.AssinaturaException("Assinatura não encontrada: " + id)))
+                .<AssinaturaModel>flatMap(atual -> Mono.error(AssinaturaService.expirado(atual)
+                    ? new AssinaturaService.LinkExpiradoException(id)
+                    : new AssinaturaService.ConflitoTransicaoException(id, atual.getStatus(), destino)))))
+            .flatMap(anterior -> {
+                StatusAssinatura statusAnterior = anterior.getStatus();
+                AssinaturaService.aplicarCampos(anterior, campos);
+                return bloqueante(() -> {
+                    contadores.registrarTransicao(anterior, statusAnterior);
+                    return anterior;
+                });
+            });
+    }
+
+    // Consulta o cache de clientes antes do banco e o alimenta com o que o driver reativo ler
+    private Mono<Optional<String>> cpfDoCliente(String clienteId) {
+        if (!StringUtils.hasText(clienteId)) {
+            return Mono.just(Optional.empty());
+        }
+        Optional<ClienteModel> emCache = clienteService.emCache(clienteId);
+        if (emCache.isPresent()) {
+            return Mono.just(emCache.map(ClienteModel::getCpf));
+        }
+        long geracao = clienteService.geracaoCache();
+        return mongoTemplate.findById(clienteId, ClienteModel.class)
+            .doOnNext(cliente -> clienteService.guardarEmCache(clienteId, cliente, geracao))
+            .map(cliente -> Optional.ofNullable(cliente.getCpf()))
+            .defaultIfEmpty(Optional.empty());
+    }
+
+    private static <T> Mono<T> bloqueante(Callable<T> acao) {
+        return Mono.fromCallable(acao).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -1,68 +1,220 @@
 package com.Equipe1.AssinaturaDigital.Assinatura;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.UUID;
-import java.util.Base64;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.util.StringUtils;
+import com.Equipe1.AssinaturaDigital.Armazenamento.ArmazenamentoDocumentos;
+import com.Equipe1.AssinaturaDigital.Armazenamento.PdfBlobService;
+import com.Equipe1.AssinaturaDigital.Armazenamento.DocumentoSalvo;
+import com.Equipe1.AssinaturaDigital.Cenario.CenarioModel;
 import com.Equipe1.AssinaturaDigital.Cliente.ClienteModel;
-import com.Equipe1.AssinaturaDigital.Cliente.ClienteRepository;
+import com.Equipe1.AssinaturaDigital.Cliente.ClienteService;
+import com.Equipe1.AssinaturaDigital.Infra.Log.MascaraDados;
+import com.Equipe1.AssinaturaDigital.Infra.Paginacao.ConsultaPaginada;
+import com.Equipe1.AssinaturaDigital.Infra.Paginacao.Pagina;
+import com.Equipe1.AssinaturaDigital.Infra.Security.TokenAssinaturaService;
 import com.Equipe1.AssinaturaDigital.Infra.Security.DTO.AssinaturaConfirmacaoRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
 public class AssinaturaService {
+
+    private static final Logger log = LoggerFactory.getLogger(AssinaturaService.class);
     
     private final AssinaturaRepository assinaturaRepository;
-    private final ClienteRepository clienteRepository;
-    
-    @Value("${app.upload.dir:uploads}")
-    private String uploadDir;
+    private final ClienteService clienteService;
+    private final PdfBlobService pdfBlobService;
+    private final ArmazenamentoDocumentos armazenamento;
+    private final SelfieService selfieService;
+    private final ConsultaPaginada consultaPaginada;
+    private final MetricasAssinatura metricas;
+    private final ContadoresAssinatura contadores;
+    private final MongoTemplate mongoTemplate;
+    private final TokenAssinaturaService tokenAssinaturaService;
     
     @Value("${app.base.url:http://localhost:4200}")
     private String baseUrl;
+
+    // Validade do link de assinatura a partir do envio
+    @Value("${app.assinatura.link.validade:P7D}")
+    private Duration validadeLink;
+
+    @Value("${app.lote.tamanho-maximo:1000}")
+    private int tamanhoMaximoLote;
     
     private static final String PDF_EXTENSION = ".pdf";
-    private static final String JPG_EXTENSION = ".jpg";
-    private static final String ARQUIVOS_PATH = "/arquivos/";
-    private static final String SELFIES_PATH = "/selfies/";
 
-    public AssinaturaService(AssinaturaRepository assinaturaRepository, ClienteRepository clienteRepository) {
+    // Transições feitas pelo cliente através do link: só valem enquanto ele não expirou
+    private static final Set<StatusAssinatura> DESTINOS_PELO_LINK = EnumSet.of(
+            StatusAssinatura.ASSINADA, StatusAssinatura.CONFIRMADA, StatusAssinatura.RECUSADA);
+
+    // Status em que o PDF deixa de sair pelo link público, mesmo com o token ainda válido
+    private static final Set<StatusAssinatura> SEM_PDF_PUBLICO = EnumSet.of(
+            StatusAssinatura.RECUSADA, StatusAssinatura.CANCELADA);
+
+    // Campos que a listagem paginada pode devolver (?campos=) e o resumo usado por padrão
+    private static final Set<String> CAMPOS_LISTAGEM = Set.of("clienteId", "termoId", "cenarioId", "status",
+            "dataAssinatura", "dataEnvioLink", "expiraEm", "linkAssinatura", "pdfPath", "pdfSha256", "pdfTamanho",
+            "cpfInformado", "localizacao", "ip", "selfiePath", "selfieSha256");
+    private static final Set<String> CAMPOS_RESUMO = Set.of("clienteId", "termoId", "cenarioId", "status",
+            "dataAssinatura", "dataEnvioLink");
+    // Ordenações da listagem paginada, cada uma com índice terminado em _id (IndicesMongo)
+    private static final Map<String, ConsultaPaginada.Ordenacao<AssinaturaModel>> ORDENACOES = Map.of(
+            "dataAssinatura", new ConsultaPaginada.Ordenacao<>("dataAssinatura", AssinaturaModel::getDataAssinatura),
+            "status", new ConsultaPaginada.Ordenacao<>("status", AssinaturaModel::getStatus));
+
+    public AssinaturaService(AssinaturaRepository assinaturaRepository, ClienteService clienteService,
+                             PdfBlobService pdfBlobService, ArmazenamentoDocumentos armazenamento,
+                             SelfieService selfieService, ConsultaPaginada consultaPaginada,
+                             MetricasAssinatura metricas, ContadoresAssinatura contadores,
+                             MongoTemplate mongoTemplate, TokenAssinaturaService tokenAssinaturaService) {
         this.assinaturaRepository = assinaturaRepository;
-        this.clienteRepository = clienteRepository;
+        this.clienteService = clienteService;
+        this.pdfBlobService = pdfBlobService;
+        this.armazenamento = armazenamento;
+        this.selfieService = selfieService;
+        this.consultaPaginada = consultaPaginada;
+        this.metricas = metricas;
+        this.contadores = contadores;
+        this.mongoTemplate = mongoTemplate;
+        this.tokenAssinaturaService = tokenAssinaturaService;
     }
 
     /**
-     * Cria uma nova assinatura com upload de PDF
+     * Cria uma nova assinatura com upload de PDF (PDFs idênticos são armazenados uma única vez)
      */
-    private String gerarNomePdf() {
-        return UUID.randomUUID().toString() + PDF_EXTENSION;
-    } 
     public AssinaturaModel criarAssinatura(String clienteId, String termoId, String cenarioId, MultipartFile pdfFile) {
-        validarParametrosObrigatorios(clienteId, termoId, cenarioId, pdfFile);
-        
-        String nomePdf = gerarNomePdf();
-        String caminhoSalvo = salvarPdf(pdfFile, nomePdf);
-        
-        AssinaturaModel novaAssinatura = construirNovaAssinatura(clienteId, termoId, cenarioId, caminhoSalvo);
-        
-        return assinaturaRepository.save(novaAssinatura);
+        return metricas.medir("criar", () -> {
+            validarParametrosObrigatorios(clienteId, termoId, cenarioId, pdfFile);
+            
+            DocumentoSalvo pdfSalvo = pdfBlobService.armazenar(pdfFile);
+            metricas.registrarBytes("pdf", "upload", pdfSalvo.tamanho());
+            
+            AssinaturaModel novaAssinatura = construirNovaAssinatura(clienteId, termoId, cenarioId, pdfSalvo);
+            
+            AssinaturaModel salva;
+            try {
+                salva = assinaturaRepository.save(novaAssinatura);
+            } catch (RuntimeException e) {
+                // Sem a assinatura gravada, a referência ao blob ficaria presa para sempre
+                pdfBlobService.liberar(pdfSalvo.sha256());
+                throw e;
+            }
+            contadores.registrarCriacao(salva);
+            return salva;
+        });
+    }
+
+    /**
+     * Cria a mesma assinatura para vários clientes a partir de um único upload: o PDF é gravado
+     * uma vez (com uma referência por cliente) e todas as assinaturas entram num único bulk insert.
+     * Sem clienteIds, o lote vai para os clientes do cenário informado.
+     */
+    public ResultadoLote criarAssinaturasEmLote(String termoId, String cenarioId, List<String> clienteIds,
+                                                boolean gerarLinks, MultipartFile pdfFile) {
+        return metricas.medir("criar_lote", () -> {
+            if (!StringUtils.hasText(termoId)) {
+                throw new IllegalArgumentException("Termo ID é obrigatório");
+            }
+            if (pdfFile == null || pdfFile.isEmpty() || !isPdfFile(pdfFile)) {
+                throw new IllegalArgumentException("Arquivo PDF é obrigatório");
+            }
+
+            Set<String> destinatarios = resolverDestinatarios(cenarioId, clienteIds);
+            if (destinatarios.isEmpty()) {
+                throw new IllegalArgumentException("Informe clienteIds ou um cenário com clientes");
+            }
+            if (destinatarios.size() > tamanhoMaximoLote) {
+                throw new IllegalArgumentException("Lote excede o máximo de " + tamanhoMaximoLote + " clientes");
+            }
+
+            // Uma consulta só para saber quais clientes existem
+            Set<String> existentes = new HashSet<>();
+            Query clientes = Query.query(Criteria.where("_id").in(destinatarios));
+            clientes.fields().include("_id");
+            mongoTemplate.find(clientes, ClienteModel.class)
+                .forEach(cliente -> existentes.add(cliente.getId()));
+
+            List<ResultadoLote.Item> itens = new ArrayList<>(destinatarios.size());
+            List<String> validos = new ArrayList<>();
+            for (String clienteId : destinatarios) {
+                if (existentes.contains(clienteId)) {
+                    validos.add(clienteId);
+                } else {
+                    itens.add(ResultadoLote.Item.falha(clienteId, "Cliente não encontrado"));
+                }
+            }
+            if (validos.isEmpty()) {
+                return new ResultadoLote(null, 0, itens.size(), itens);
+            }
+
+            DocumentoSalvo pdfSalvo = pdfBlobService.armazenar(pdfFile, validos.size());
+            metricas.registrarBytes("pdf", "upload", pdfSalvo.tamanho());
+
+            // Ids gerados aqui para o link sair no mesmo insert, sem um segundo update por assinatura
+            List<AssinaturaModel> novas = new ArrayList<>(validos.size());
+            LocalDateTime agora = LocalDateTime.now();
+            for (String clienteId : validos) {
+                AssinaturaModel assinatura = construirNovaAssinatura(clienteId, termoId, cenarioId, pdfSalvo);
+                assinatura.setId(new ObjectId().toHexString());
+                if (gerarLinks) {
+                    assinatura.setStatus(StatusAssinatura.LINK_ENVIADO);
+                    assinatura.setDataEnvioLink(agora);
+                    assinatura.setExpiraEm(agora.plus(validadeLink));
+                    assinatura.setLinkAssinatura(montarLink(assinatura.getId(), assinatura.getExpiraEm(), pdfSalvo.sha256()));
+                }
+                novas.add(assinatura);
+            }
+
+            List<AssinaturaModel> criadas;
+            try {
+                criadas = inserirEmLote(novas, itens);
+            } catch (RuntimeException e) {
+                pdfBlobService.liberar(pdfSalvo.sha256(), novas.size());
+                throw e;
+            }
+            pdfBlobService.liberar(pdfSalvo.sha256(), novas.size() - criadas.size());
+            contadores.registrarCriacoes(criadas);
+            criadas.forEach(assinatura -> itens.add(ResultadoLote.Item.sucesso(assinatura)));
+
+            return new ResultadoLote(pdfSalvo.sha256(), criadas.size(), itens.size() - criadas.size(), itens);
+        });
     }
 
     /**
-     * Busca CPF do cliente por ID
+     * Busca CPF do cliente por ID (pelo cache de clientes)
      */
     private String buscarCpfPorClienteId(String clienteId) {
-        return clienteRepository.findById(clienteId)
+        return clienteService.buscarById(clienteId)
             .map(ClienteModel::getCpf)
             .orElse(null);
     }
@@ -86,112 +238,222 @@ public class AssinaturaService {
         return assinaturaRepository.findAll();
     }
       
+    /**
+     * Lista assinaturas por página (cursor), carregando só os campos pedidos
+     */
+    @Transactional(readOnly = true)
+    public Pagina<AssinaturaModel> listarPagina(StatusAssinatura status, String clienteId, String cursor,
+                                                Integer tamanho, boolean decrescente, String campos, String ordenarPor) {
+        Criteria filtro = new Criteria();
+        if (status != null) {
+            filtro.and("status").is(status);
+        }
+        if (StringUtils.hasText(clienteId)) {
+            filtro.and("clienteId").is(clienteId);
+        }
+        return consultaPaginada.buscar(AssinaturaModel.class, filtro, cursor, tamanho, decrescente,
+                ConsultaPaginada.resolverCampos(campos, CAMPOS_LISTAGEM, CAMPOS_RESUMO), AssinaturaModel::getId,
+                ordenarPor, ORDENACOES);
+    }
+
     /**
      * Gera link de assinatura
      */
     public AssinaturaModel gerarLinkAssinatura(String id) {
-        AssinaturaModel assinatura = buscarAssinaturaObrigatoria(id);
-        
-        String link = baseUrl + "/assinar/" + id;
-        
-        assinatura.setLinkAssinatura(link);
-        assinatura.setStatus(StatusAssinatura.LINK_ENVIADO);
-        assinatura.setDataEnvioLink(LocalDateTime.now());
-        
-        return assinaturaRepository.save(assinatura);
+        return metricas.medir("gerar_link", () -> {
+            // O token do link leva o hash do PDF, para a rota pública servir o arquivo sem ler a assinatura
+            Query query = Query.query(Criteria.where("_id").is(id));
+            query.fields().include("pdfSha256");
+            AssinaturaModel atual = mongoTemplate.findOne(query, AssinaturaModel.class);
+            if (atual == null) {
+                throw new AssinaturaException("Assinatura não encontrada: " + id);
+            }
+
+            LocalDateTime agora = LocalDateTime.now();
+            LocalDateTime expiraEm = agora.plus(validadeLink);
+            
+            // Reenviar o link renova a validade
+            return transicionar(id, StatusAssinatura.LINK_ENVIADO, new Update()
+                .set("linkAssinatura", montarLink(id, expiraEm, atual.getPdfSha256()))
+                .set("dataEnvioLink", agora)
+                .set("expiraEm", expiraEm));
+        });
     }
 
     /**
-     * Obtém bytes do PDF da assinatura
+     * Serve o PDF pelo hash trazido no token do link. Antes confere, só pelo índice de _id, que a
+     * assinatura ainda existe, não foi recusada nem cancelada e continua apontando para esse PDF.
      */
-    @Transactional(readOnly = true)
-    public byte[] obterPdfBytes(String id) throws AssinaturaException {
-        AssinaturaModel assinatura = buscarAssinaturaObrigatoria(id);
-        
-        if (!StringUtils.hasText(assinatura.getPdfPath())) {
-            throw new AssinaturaException("PDF não encontrado para esta assinatura");
+    public ArquivoDownload obterPdfPorHash(String id, String pdfSha256) {
+        if (!mongoTemplate.exists(consultaPdfPublico(id, pdfSha256), AssinaturaModel.class)) {
+            throw new AssinaturaException("PDF indisponível para esta assinatura");
         }
+        return obterPdfPorCaminho(caminhoPdf(pdfSha256));
+    }
 
-        String nomeArquivo = extrairNomeArquivo(assinatura.getPdfPath());
-        Path pdfPath = Paths.get(uploadDir, nomeArquivo);
+    String caminhoPdf(String pdfSha256) {
+        return pdfBlobService.caminhoLogico(pdfSha256);
+    }
 
-        if (!Files.exists(pdfPath)) {
-            throw new AssinaturaException("Arquivo PDF não existe no sistema: " + pdfPath);
-        }
+    static Query consultaPdfPublico(String id, String pdfSha256) {
+        Query query = Query.query(Criteria.where("_id").is(id)
+                .and("status").nin(SEM_PDF_PUBLICO)
+                .and("pdfSha256").is(pdfSha256));
+        query.fields().include("_id");
+        return query;
+    }
 
-        try {
-            return Files.readAllBytes(pdfPath);
-        } catch (IOException e) {
-            throw new AssinaturaException("Erro ao ler arquivo PDF", e);
+    /**
+     * Abre o PDF pelo caminho lógico já conhecido (lido numa projeção, sem o documento inteiro)
+     */
+    ArquivoDownload obterPdfPorCaminho(String pdfPath) {
+        return metricas.medir("ler_pdf", () ->
+            obterDocumento(pdfPath, "Arquivo PDF não existe no sistema: ", "Erro ao ler arquivo PDF"));
+    }
+
+    /**
+     * Indica se o link da assinatura venceu, lendo só status e expiraEm (sem carregar o documento)
+     */
+    @Transactional(readOnly = true)
+    public boolean linkExpirado(String id) {
+        if (!StringUtils.hasText(id)) {
+            return false;
         }
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("status", "expiraEm");
+        AssinaturaModel assinatura = mongoTemplate.findOne(query, AssinaturaModel.class);
+        return assinatura != null && expirado(assinatura);
+    }
+
+    /**
+     * Obtém o PDF da assinatura para download em streaming (sem carregar o arquivo na memória)
+     */
+    @Transactional(readOnly = true)
+    public ArquivoDownload obterPdf(String id) throws AssinaturaException {
+        return metricas.medir("ler_pdf", () -> {
+            AssinaturaModel assinatura = buscarAssinaturaObrigatoria(id);
+
+            if (!StringUtils.hasText(assinatura.getPdfPath())) {
+                throw new AssinaturaException("PDF não encontrado para esta assinatura");
+            }
+
+            return obterDocumento(assinatura.getPdfPath(), "Arquivo PDF não existe no sistema: ", "Erro ao ler arquivo PDF");
+        });
     }
 
     /**
-     * Confirma assinatura com validação de CPF e salva selfie como JPG
+     * Confirma assinatura com validação de CPF e salva selfie como JPG (selfie em base64 no JSON)
      */
     public AssinaturaModel confirmarAssinatura(String id, AssinaturaConfirmacaoRequest request, String ip) {
         validarRequestConfirmacao(request);
-        
-        AssinaturaModel assinatura = buscarAssinaturaObrigatoria(id);
-        
-        String cpfEsperado = buscarCpfPorClienteId(assinatura.getClienteId());
-        
-        boolean cpfValido = validarCpf(cpfEsperado, request.getCpfInformado());
-        
-        System.out.println("CPF esperado: " + cpfEsperado);
-        System.out.println("CPF informado: " + request.getCpfInformado());
-        System.out.println("CPF válido? " + cpfValido);
-        
-        if (!cpfValido) {
-            throw new IllegalArgumentException("CPF informado não confere com o cliente.");
+        if (request.getSelfieBase64() != null) {
+            metricas.registrarBytes("selfie", "upload", request.getSelfieBase64().length() / 4L * 3L);
         }
 
-        if (!StringUtils.hasText(request.getSelfieBase64())) {
-            throw new IllegalArgumentException("Selfie é obrigatória para confirmação.");
-        }
-        
-        // Salvar selfie como arquivo JPG se fornecida
-        String selfiePath = salvarSelfieComoJpg(request.getSelfieBase64(), id);
-        if (StringUtils.hasText(request.getSelfieBase64())) {
-            selfiePath = salvarSelfieComoJpg(request.getSelfieBase64(), id);
+        return confirmar(id, request.getCpfInformado(), request.getLocalizacao(), ip,
+            StringUtils.hasText(request.getSelfieBase64()),
+            () -> selfieService.salvarSelfieComoJpg(request.getSelfieBase64(), id));
+    }
+
+    /**
+     * Confirma assinatura recebendo a selfie como arquivo binário (multipart), sem base64
+     */
+    public AssinaturaModel confirmarAssinatura(String id, String cpfInformado, String localizacao,
+                                               MultipartFile selfie, String ip) {
+        validarCpfInformado(cpfInformado);
+        if (selfie != null) {
+            metricas.registrarBytes("selfie", "upload", selfie.getSize());
         }
-        
-        atualizarDadosConfirmacao(assinatura, request, ip, cpfValido, selfiePath);
-        
-        return assinaturaRepository.save(assinatura);
+
+        return confirmar(id, cpfInformado, localizacao, ip,
+            selfie != null && !selfie.isEmpty(),
+            () -> selfieService.salvarSelfieComoJpg(selfie, id));
+    }
+
+    private AssinaturaModel confirmar(String id, String cpfInformado, String localizacao, String ip,
+                                      boolean selfieInformada, Supplier<DocumentoSalvo> gravarSelfie) {
+        return metricas.medir("confirmar", () -> {
+            AssinaturaModel assinatura = buscarAssinaturaObrigatoria(id);
+            
+            if (expirado(assinatura)) {
+                throw new LinkExpiradoException(id);
+            }
+
+            // Reenvio de uma confirmação já aplicada: responde conflito antes de processar a selfie
+            if (!MaquinaEstadosAssinatura.permite(assinatura.getStatus(), StatusAssinatura.CONFIRMADA)) {
+                throw new ConflitoTransicaoException(id, assinatura.getStatus(), StatusAssinatura.CONFIRMADA);
+            }
+            
+            String cpfEsperado = buscarCpfPorClienteId(assinatura.getClienteId());
+            
+            boolean cpfValido = validarCpf(cpfEsperado, cpfInformado);
+            
+            log.debug("Confirmação da assinatura {}: CPF informado {} válido={}", id, MascaraDados.cpf(cpfInformado), cpfValido);
+            
+            if (!cpfValido) {
+                throw new IllegalArgumentException("CPF informado não confere com o cliente.");
+            }
+
+            if (!selfieInformada) {
+                throw new SelfieService.SelfieInvalidaException("Selfie é obrigatória para confirmação.");
+            }
+            
+            // Decodifica, normaliza e grava a selfie uma única vez
+            DocumentoSalvo selfie = gravarSelfie.get();
+            
+            try {
+                return transicionar(id, StatusAssinatura.CONFIRMADA,
+                    dadosConfirmacao(cpfInformado, localizacao, ip, selfie));
+            } catch (ConflitoTransicaoException e) {
+                // Outra confirmação venceu a corrida: a selfie desta fica sem dono
+                apagarDocumentoSilenciosamente(selfie.caminho());
+                throw e;
+            }
+        });
     }
     
     /**
-     * Obtém bytes da selfie JPG da assinatura
+     * Obtém a selfie JPG da assinatura para download em streaming
      */
     @Transactional(readOnly = true)
-    public byte[] obterSelfieBytes(String id) throws AssinaturaException {
-        AssinaturaModel assinatura = buscarAssinaturaObrigatoria(id);
-        
-        if (!StringUtils.hasText(assinatura.getSelfiePath())) {
-            throw new AssinaturaException("Selfie não encontrada para esta assinatura");
-        }
+    public ArquivoDownload obterSelfie(String id) throws AssinaturaException {
+        return metricas.medir("ler_selfie", () -> {
+            AssinaturaModel assinatura = buscarAssinaturaObrigatoria(id);
+            
+            if (!StringUtils.hasText(assinatura.getSelfiePath())) {
+                throw new AssinaturaException("Selfie não encontrada para esta assinatura");
+            }
 
-        String nomeArquivo = extrairNomeArquivo(assinatura.getSelfiePath());
-        Path selfiePath = Paths.get(uploadDir, "selfies", nomeArquivo);
+            return obterDocumento(assinatura.getSelfiePath(), "Arquivo de selfie não existe no sistema: ", "Erro ao ler arquivo de selfie");
+        });
+    }
 
-        if (!Files.exists(selfiePath)) {
-            throw new AssinaturaException("Arquivo de selfie não existe no sistema: " + selfiePath);
+    /**
+     * Apaga a assinatura e libera a referência ao PDF compartilhado. A remoção e a leitura são um
+     * único findAndRemove: só quem de fato removeu o documento libera a referência, então DELETEs
+     * concorrentes (ou repetidos) não decrementam o contador do blob duas vezes.
+     */
+    public void apagarAssinatura(String id) {
+        if (!StringUtils.hasText(id)) {
+            throw new AssinaturaException("Assinatura não encontrada: " + id);
+        }
+        AssinaturaModel assinatura = mongoTemplate.findAndRemove(
+            Query.query(Criteria.where("_id").is(id)), AssinaturaModel.class);
+        if (assinatura == null) {
+            throw new AssinaturaException("Assinatura não encontrada: " + id);
         }
+        contadores.registrarRemocao(assinatura);
 
-        try {
-            return Files.readAllBytes(selfiePath);
-        } catch (IOException e) {
-            throw new AssinaturaException("Erro ao ler arquivo de selfie", e);
+        if (pdfBlobService.ehBlob(assinatura.getPdfPath(), assinatura.getPdfSha256())) {
+            pdfBlobService.liberar(assinatura.getPdfSha256());
         }
     }
+
     public AssinaturaModel marcarComoAssinada(String id) {
-        AssinaturaModel assinatura = buscarAssinaturaObrigatoria(id);
-        
-        assinatura.setStatus(StatusAssinatura.ASSINADA);
-        assinatura.setDataAssinatura(LocalDateTime.now());
-        
-        return assinaturaRepository.save(assinatura);
+        return metricas.medir("marcar_assinada", () -> {
+            return transicionar(id, StatusAssinatura.ASSINADA, new Update()
+                .set("dataAssinatura", LocalDateTime.now()));
+        });
     }
     
     /**
@@ -206,6 +468,123 @@ public class AssinaturaService {
     }
 
     // Métodos auxiliares privados
+
+    /**
+     * Aplica a transição com um único findAndModify condicionado ao status atual: só os campos
+     * alterados são gravados ($set) e, se outra requisição mudou o status antes, nada é escrito
+     * e a chamada recebe {@link ConflitoTransicaoException}
+     */
+    private AssinaturaModel transicionar(String id, StatusAssinatura destino, Update campos) {
+        if (!StringUtils.hasText(id)) {
+            throw new AssinaturaException("Assinatura não encontrada: " + id);
+        }
+        campos.set("status", destino);
+
+        AssinaturaModel anterior = mongoTemplate.findAndModify(
+            Query.query(condicaoTransicao(id, destino)),
+            campos,
+            FindAndModifyOptions.options().returnNew(false),
+            AssinaturaModel.class);
+
+        if (anterior == null) {
+            AssinaturaModel atual = buscarAssinaturaObrigatoria(id);
+            if (DESTINOS_PELO_LINK.contains(destino) && expirado(atual)) {
+                throw new LinkExpiradoException(id);
+            }
+            throw new ConflitoTransicaoException(id, atual.getStatus(), destino);
+        }
+
+        StatusAssinatura statusAnterior = anterior.getStatus();
+        aplicarCampos(anterior, campos);
+
+        contadores.registrarTransicao(anterior, statusAnterior);
+        return anterior;
+    }
+
+    /**
+     * Filtro do findAndModify de uma transição: status atual entre as origens permitidas e,
+     * para destinos acionados pelo link, link ainda dentro da validade
+     */
+    static Criteria condicaoTransicao(String id, StatusAssinatura destino) {
+        Criteria condicao = Criteria.where("_id").is(id).and("status").in(MaquinaEstadosAssinatura.origens(destino));
+        if (DESTINOS_PELO_LINK.contains(destino)) {
+            // Link vencido que a varredura ainda não marcou também não pode ser usado
+            condicao.orOperator(
+                Criteria.where("status").nin(MaquinaEstadosAssinatura.origens(StatusAssinatura.EXPIRADA)),
+                Criteria.where("expiraEm").is(null),
+                Criteria.where("expiraEm").gt(LocalDateTime.now()));
+        }
+        return condicao;
+    }
+
+    // O documento devolvido é o de antes do update: aplica nele os mesmos campos do $set
+    static void aplicarCampos(AssinaturaModel assinatura, Update campos) {
+        BeanWrapper atualizado = new BeanWrapperImpl(assinatura);
+        campos.getUpdateObject().get("$set", Document.class).forEach(atualizado::setPropertyValue);
+    }
+
+    static boolean expirado(AssinaturaModel assinatura) {
+        return assinatura.getStatus() == StatusAssinatura.EXPIRADA
+            || (assinatura.getExpiraEm() != null && assinatura.getExpiraEm().isBefore(LocalDateTime.now())
+                && MaquinaEstadosAssinatura.permite(assinatura.getStatus(), StatusAssinatura.EXPIRADA));
+    }
+
+    private String montarLink(String id, LocalDateTime expiraEm, String pdfSha256) {
+        return baseUrl + "/assinar/"
+            + tokenAssinaturaService.gerar(id, expiraEm.atZone(ZoneId.systemDefault()).toInstant(), pdfSha256);
+    }
+
+    private Set<String> resolverDestinatarios(String cenarioId, List<String> clienteIds) {
+        Set<String> destinatarios = new LinkedHashSet<>();
+        if (clienteIds != null) {
+            clienteIds.stream().filter(StringUtils::hasText).map(String::trim).forEach(destinatarios::add);
+        }
+        if (destinatarios.isEmpty() && StringUtils.hasText(cenarioId)) {
+            CenarioModel cenario = mongoTemplate.findById(cenarioId, CenarioModel.class);
+            if (cenario == null) {
+                throw new IllegalArgumentException("Cenário não encontrado: " + cenarioId);
+            }
+            if (StringUtils.hasText(cenario.getClienteId())) {
+                destinatarios.add(cenario.getClienteId());
+            }
+            // Clientes que já assinaram algo neste cenário também recebem o novo documento
+            destinatarios.addAll(mongoTemplate.findDistinct(Query.query(Criteria.where("cenarioId").is(cenarioId)),
+                "clienteId", AssinaturaModel.class, String.class));
+        }
+        return destinatarios;
+    }
+
+    /**
+     * Insere todas as assinaturas num bulk não ordenado; as que falharem viram itens de erro
+     */
+    private List<AssinaturaModel> inserirEmLote(List<AssinaturaModel> novas, List<ResultadoLote.Item> itens) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AssinaturaModel.class).insert(novas).execute();
+            return novas;
+        } catch (BulkOperationException e) {
+            Map<Integer, String> erros = new HashMap<>();
+            e.getErrors().forEach(erro -> erros.put(erro.getIndex(), erro.getMessage()));
+            List<AssinaturaModel> criadas = new ArrayList<>();
+            for (int i = 0; i < novas.size(); i++) {
+                AssinaturaModel assinatura = novas.get(i);
+                if (erros.containsKey(i)) {
+                    log.warn("Falha ao criar assinatura do lote para o cliente {}: {}", assinatura.getClienteId(), erros.get(i));
+                    itens.add(ResultadoLote.Item.falha(assinatura.getClienteId(), "Erro ao gravar assinatura"));
+                } else {
+                    criadas.add(assinatura);
+                }
+            }
+            return criadas;
+        }
+    }
+
+    void apagarDocumentoSilenciosamente(String caminhoLogico) {
+        try {
+            armazenamento.apagar(ArmazenamentoDocumentos.chaveDe(caminhoLogico));
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o documento órfão {}: {}", caminhoLogico, e.getMessage());
+        }
+    }
     
     private void validarParametrosObrigatorios(String clienteId, String termoId, String cenarioId, MultipartFile pdfFile) {
         if (!StringUtils.hasText(clienteId)) {
@@ -230,59 +609,16 @@ public class AssinaturaService {
                (originalFilename != null && originalFilename.toLowerCase().endsWith(PDF_EXTENSION));
     }
     
-    private String gerarNomeJpg() {
-        return UUID.randomUUID().toString() + JPG_EXTENSION;
-    }
-    
-    private String salvarSelfieComoJpg(String selfieBase64, String assinaturaId) {
-        try {
-            // Remove o prefixo data:image/jpeg;base64, se existir
-            String base64Data = selfieBase64;
-            if (selfieBase64.contains(",")) {
-                base64Data = selfieBase64.split(",")[1];
-            }
-            
-            // Decodifica o Base64
-            byte[] imageBytes = Base64.getDecoder().decode(base64Data);
-            
-            // Gera nome único para a selfie
-            String nomeJpg = assinaturaId + "_selfie_" + System.currentTimeMillis() + JPG_EXTENSION;
-            
-            // Cria diretório de selfies se não existir
-            Path selfiesDir = Paths.get(uploadDir, "selfies");
-            Files.createDirectories(selfiesDir);
-            
-            // Salva o arquivo
-            Path caminhoSelfie = selfiesDir.resolve(nomeJpg);
-            Files.write(caminhoSelfie, imageBytes);
-            
-            return SELFIES_PATH + nomeJpg;
-            
-        } catch (Exception e) {
-            throw new AssinaturaException("Erro ao salvar selfie como JPG", e);
-        }
-    }
-    
-    private String salvarPdf(MultipartFile pdfFile, String nomePdf) {
-        Path caminho = Paths.get(uploadDir, nomePdf);
-        
-        try {
-            Files.createDirectories(caminho.getParent());
-            Files.write(caminho, pdfFile.getBytes());
-            return ARQUIVOS_PATH + nomePdf;
-        } catch (IOException e) {
-            throw new RuntimeException("Erro ao salvar o PDF: " + nomePdf, e);
-        }
-    }
-    
-    private AssinaturaModel construirNovaAssinatura(String clienteId, String termoId, String cenarioId, String pdfPath) {
+    private AssinaturaModel construirNovaAssinatura(String clienteId, String termoId, String cenarioId, DocumentoSalvo pdf) {
         AssinaturaModel assinatura = new AssinaturaModel();
         assinatura.setClienteId(clienteId);
         assinatura.setTermoId(termoId);
         assinatura.setCenarioId(cenarioId);
         assinatura.setDataAssinatura(LocalDateTime.now());
         assinatura.setStatus(StatusAssinatura.CRIADA);
-        assinatura.setPdfPath(pdfPath);
+        assinatura.setPdfPath(pdf.caminho());
+        assinatura.setPdfSha256(pdf.sha256());
+        assinatura.setPdfTamanho(pdf.tamanho());
         return assinatura;
     }
     
@@ -291,20 +627,31 @@ public class AssinaturaService {
             .orElseThrow(() -> new AssinaturaException("Assinatura não encontrada: " + id));
     }
     
-    private String extrairNomeArquivo(String pdfPath) {
-        return pdfPath.replaceFirst("^" + ARQUIVOS_PATH, "");
+    private ArquivoDownload obterDocumento(String caminhoLogico, String mensagemInexistente, String mensagemErro) {
+        String chave = ArmazenamentoDocumentos.chaveDe(caminhoLogico);
+        try {
+            return armazenamento.buscar(chave)
+                .map(ArquivoDownload::deDocumento)
+                .orElseThrow(() -> new AssinaturaException(mensagemInexistente + chave));
+        } catch (IOException e) {
+            throw new AssinaturaException(mensagemErro, e);
+        }
     }
     
     private void validarRequestConfirmacao(AssinaturaConfirmacaoRequest request) {
         if (request == null) {
             throw new IllegalArgumentException("Request de confirmação não pode ser nulo");
         }
-        if (!StringUtils.hasText(request.getCpfInformado())) {
+        validarCpfInformado(request.getCpfInformado());
+    }
+
+    static void validarCpfInformado(String cpfInformado) {
+        if (!StringUtils.hasText(cpfInformado)) {
             throw new IllegalArgumentException("CPF é obrigatório");
         }
     }
     
-    private boolean validarCpf(String cpfEsperado, String cpfInformado) {
+    static boolean validarCpf(String cpfEsperado, String cpfInformado) {
         if (cpfEsperado == null || cpfInformado == null) return false;
 
         String esperado = cpfEsperado.replaceAll("[^\\d]", "");
@@ -314,15 +661,14 @@ public class AssinaturaService {
     }
 
     
-    private void atualizarDadosConfirmacao(AssinaturaModel assinatura, AssinaturaConfirmacaoRequest request, 
-                                         String ip, boolean cpfValido, String selfiePath) {
-        assinatura.setCpfInformado(request.getCpfInformado());
-        assinatura.setSelfieBase64(request.getSelfieBase64()); // Mantém no banco também
-        assinatura.setSelfiePath(selfiePath); // Novo campo para o caminho do arquivo
-        assinatura.setLocalizacao(request.getLocalizacao());
-        assinatura.setIp(ip);
-        assinatura.setDataAssinatura(LocalDateTime.now());
-        assinatura.setStatus(cpfValido ? StatusAssinatura.CONFIRMADA : StatusAssinatura.RECUSADA);
+    static Update dadosConfirmacao(String cpfInformado, String localizacao, String ip, DocumentoSalvo selfie) {
+        return new Update()
+            .set("cpfInformado", cpfInformado)
+            .set("selfiePath", selfie.caminho()) // a imagem fica só no armazenamento, nunca no documento
+            .set("selfieSha256", selfie.sha256())
+            .set("localizacao", localizacao)
+            .set("ip", ip)
+            .set("dataAssinatura", LocalDateTime.now());
     }
     
     // Exceção customizada
@@ -335,4 +681,24 @@ public class AssinaturaService {
             super(message, cause);
         }
     }
-}
\ No newline at end of file
+
+    // Transição recusada porque o status atual (talvez alterado por outra requisição) não permite
+    public static class ConflitoTransicaoException extends AssinaturaException {
+        private final StatusAssinatura statusAtual;
+
+        public ConflitoTransicaoException(String id, StatusAssinatura statusAtual, StatusAssinatura destino) {
+            super("Assinatura " + id + " está " + statusAtual + " e não pode passar para " + destino);
+            this.statusAtual = statusAtual;
+        }
+
+        public StatusAssinatura getStatusAtual() {
+            return statusAtual;
+        }
+    }
+
+    public static class LinkExpiradoException extends AssinaturaException {
+        public LinkExpiradoException(String id) {
+            super("Link da assinatura " + id + " expirou");
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.Equipe1.AssinaturaDigital.Infra.Concorrencia.FabricaThreads;
+import com.mongodb.bulk.BulkWriteError;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Contadores de assinaturas por status, mantidos incrementalmente na coleção
+ * assinaturas_contadores. Cada transição de status faz um único bulk com $inc em três
+ * documentos: o total geral, o do cenário e o do dia de criação da assinatura. O resumo
+ * lê só esses documentos, independente de quantas assinaturas existam.
+ *
+ * Os contadores são atualizados depois do save da assinatura, fora de transação; qualquer
+ * divergência é corrigida por {@link #iniciarReconstrucao()}, que recalcula tudo a partir
+ * da coleção de assinaturas. Cada $inc também soma 1 em "versao", para que a reconstrução não
+ * sobrescreva um contador incrementado enquanto ela agregava. Ainda assim, uma transição gravada
+ * na assinatura e ainda não refletida no contador pode ser contada duas vezes; o ideal é
+ * reconstruir com pouco tráfego de escrita.
+ */
+@Component
+public class ContadoresAssinatura {
+
+    private static final Logger log = LoggerFactory.getLogger(ContadoresAssinatura.class);
+
+    private static final String COLECAO = "assinaturas_contadores";
+    private static final String COLECAO_ASSINATURAS = "assinaturas";
+    private static final String TIPO_GERAL = "geral";
+    private static final String TIPO_CENARIO = "cenario";
+    private static final String TIPO_DIA = "dia";
+    private static final String SEM_CENARIO = "sem-cenario";
+    private static final int CHAVE_DUPLICADA = 11000;
+
+    public record Resumo(long total, Map<String, Long> porStatus, Map<String, Map<String, Long>> porCenario,
+                         Map<String, Map<String, Long>> porDia) {
+    }
+
+    public record Reconstrucao(boolean emExecucao, Instant iniciadaEm, Instant concluidaEm, String erro) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final ZoneId fuso;
+    private final ExecutorService executor;
+
+    private final AtomicBoolean reconstruindo = new AtomicBoolean();
+    private volatile Instant reconstrucaoIniciadaEm;
+    private volatile Instant reconstrucaoConcluidaEm;
+    private volatile String erroReconstrucao;
+
+    public ContadoresAssinatura(MongoTemplate mongoTemplate, FabricaThreads fabricaThreads,
+                                @Value("${app.resumo.fuso:America/Sao_Paulo}") String fuso) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = fabricaThreads.unicaThread("reconstrucao-contadores");
+        this.fuso = ZoneId.of(fuso);
+    }
+
+    public void registrarCriacao(AssinaturaModel assinatura) {
+        aplicar(assinatura, null, assinatura.getStatus());
+    }
+
+    /**
+     * Criação em lote: soma as assinaturas por documento de contador e grava tudo num único bulk
+     */
+    public void registrarCriacoes(List<AssinaturaModel> assinaturas) {
+        aplicarEmLote(assinaturas, assinatura -> null, AssinaturaModel::getStatus);
+    }
+
+    /**
+     * Transição em lote para o mesmo destino (ex.: expiração); cada assinatura traz o status anterior
+     */
+    public void registrarTransicoes(List<AssinaturaModel> anteriores, StatusAssinatura destino) {
+        aplicarEmLote(anteriores, AssinaturaModel::getStatus, assinatura -> destino);
+    }
+
+    public void registrarTransicao(AssinaturaModel assinatura, StatusAssinatura anterior) {
+        if (anterior != assinatura.getStatus()) {
+            aplicar(assinatura, anterior, assinatura.getStatus());
+        }
+    }
+
+    public void registrarRemocao(AssinaturaModel assinatura) {
+        aplicar(assinatura, assinatura.getStatus(), null);
+    }
+
+    /**
+     * Resumo por status, por cenário e pelos últimos dias (dia de criação da assinatura)
+     */
+    public Resumo resumo(int dias) {
+        Query query = Query.query(new Criteria().orOperator(
+                Criteria.where("tipo").in(TIPO_GERAL, TIPO_CENARIO),
+                Criteria.where("tipo").is(TIPO_DIA).and("chave").gte(LocalDate.now(fuso).minusDays(dias - 1L).toString())));
+
+        Map<String, Long> porStatus = contagensVazias();
+        Map<String, Map<String, Long>> porCenario = new TreeMap<>();
+        Map<String, Map<String, Long>> porDia = new TreeMap<>();
+
+        for (Document documento : mongoTemplate.find(query, Document.class, COLECAO)) {
+            Map<String, Long> contagens = lerContagens(documento.get("contagens", Document.class));
+            switch (documento.getString("tipo")) {
+                case TIPO_GERAL -> porStatus = contagens;
+                case TIPO_CENARIO -> porCenario.put(documento.getString("chave"), contagens);
+                case TIPO_DIA -> porDia.put(documento.getString("chave"), contagens);
+                default -> { }
+            }
+        }
+
+        long total = porStatus.values().stream().mapToLong(Long::longValue).sum();
+        return new Resumo(total, porStatus, porCenario, porDia);
+    }
+
+    /**
+     * Recalcula todos os contadores em segundo plano. Retorna false se já houver uma reconstrução em andamento.
+     */
+    public boolean iniciarReconstrucao() {
+        if (!reconstruindo.compareAndSet(false, true)) {
+            return false;
+        }
+        reconstrucaoIniciadaEm = Instant.now();
+        reconstrucaoConcluidaEm = null;
+        erroReconstrucao = null;
+        executor.execute(() -> {
+            try {
+                int alterados = reconstruir();
+                if (alterados > 0) {
+                    erroReconstrucao = alterados + " contadores receberam atualizações durante a reconstrução"
+                            + " e foram mantidos; repita a reconstrução com menos tráfego";
+                }
+            } catch (RuntimeException e) {
+                erroReconstrucao = e.getMessage();
+                log.error("Falha ao reconstruir os contadores de assinaturas", e);
+            } finally {
+                reconstrucaoConcluidaEm = Instant.now();
+                reconstruindo.set(false);
+            }
+        });
+        return true;
+    }
+
+    public Reconstrucao situacaoReconstrucao() {
+        return new Reconstrucao(reconstruindo.get(), reconstrucaoIniciadaEm, reconstrucaoConcluidaEm, erroReconstrucao);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private void aplicarEmLote(List<AssinaturaModel> assinaturas, Function<AssinaturaModel, StatusAssinatura> anterior,
+                               Function<AssinaturaModel, StatusAssinatura> novo) {
+        // _id do contador -> (status -> delta); o $inc de cada documento sai já somado
+        Map<String, Map<String, Integer>> somas = new LinkedHashMap<>();
+        for (AssinaturaModel assinatura : assinaturas) {
+            List<String> ids = new ArrayList<>(3);
+            ids.add(TIPO_GERAL);
+            ids.add(TIPO_CENARIO + ":" + chaveCenario(assinatura.getCenarioId()));
+            String dia = diaDeCriacao(assinatura.getId());
+            if (dia != null) {
+                ids.add(TIPO_DIA + ":" + dia);
+            }
+            StatusAssinatura de = anterior.apply(assinatura);
+            StatusAssinatura para = novo.apply(assinatura);
+            for (String id : ids) {
+                Map<String, Integer> porStatus = somas.computeIfAbsent(id, chave -> new TreeMap<>());
+                if (de != null) {
+                    porStatus.merge(de.name(), -1, Integer::sum);
+                }
+                if (para != null) {
+                    porStatus.merge(para.name(), 1, Integer::sum);
+                }
+            }
+        }
+        if (somas.isEmpty()) {
+            return;
+        }
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLECAO);
+            somas.forEach((id, porStatus) -> {
+                int separador = id.indexOf(':');
+                String tipo = separador < 0 ? id : id.substring(0, separador);
+                String chave = separador < 0 ? id : id.substring(separador + 1);
+                Update update = new Update()
+                        .setOnInsert("tipo", tipo)
+                        .setOnInsert("chave", chave)
+                        .set("atualizadoEm", new Date());
+                porStatus.forEach((status, delta) -> update.inc("contagens." + status, delta));
+                update.inc("versao", 1);
+                bulk.upsert(porId(id), update);
+            });
+            bulk.execute();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao atualizar contadores de um lote de {} assinaturas: {}", assinaturas.size(), e.getMessage());
+        }
+    }
+
+    private void aplicar(AssinaturaModel assinatura, StatusAssinatura anterior, StatusAssinatura novo) {
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLECAO);
+            bulk.upsert(porId(TIPO_GERAL), incrementos(TIPO_GERAL, TIPO_GERAL, anterior, novo));
+            String cenario = chaveCenario(assinatura.getCenarioId());
+            bulk.upsert(porId(TIPO_CENARIO + ":" + cenario), incrementos(TIPO_CENARIO, cenario, anterior, novo));
+            String dia = diaDeCriacao(assinatura.getId());
+            if (dia != null) {
+                bulk.upsert(porId(TIPO_DIA + ":" + dia), incrementos(TIPO_DIA, dia, anterior, novo));
+            }
+            bulk.execute();
+        } catch (RuntimeException e) {
+            // A assinatura já foi gravada; a reconstrução corrige o contador que ficou para trás
+            log.warn("Falha ao atualizar contadores da assinatura {}: {}", assinatura.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Agrega a coleção de assinaturas e substitui os contadores. Um contador que recebeu $inc
+     * durante a agregação (versão diferente da lida no início) não é substituído, para não
+     * apagar o incremento; ele é contado e a reconstrução pode ser repetida com menos tráfego.
+     */
+    private int reconstruir() {
+        Instant inicio = Instant.now();
+        Map<String, Long> versoes = new HashMap<>();
+        Query existentes = new Query();
+        existentes.fields().include("versao");
+        for (Document documento : mongoTemplate.find(existentes, Document.class, COLECAO)) {
+            versoes.put(documento.getString("_id"), versao(documento));
+        }
+
+        Map<String, Document> documentos = new LinkedHashMap<>();
+        documentos.put(TIPO_GERAL, novoDocumento(TIPO_GERAL, TIPO_GERAL, inicio));
+
+        List<Document> pipeline = List.of(
+                new Document("$group", new Document("_id", new Document()
+                        .append("status", "$status")
+                        .append("cenario", "$cenarioId")
+                        .append("dia", new Document("$dateToString", new Document()
+                                .append("format", "%Y-%m-%d")
+                                .append("date", new Document("$toDate", "$_id"))
+                                .append("timezone", fuso.getId()))))
+                        .append("total", new Document("$sum", 1))));
+
+        for (Document grupo : mongoTemplate.getCollection(COLECAO_ASSINATURAS).aggregate(pipeline).allowDiskUse(true)) {
+            Document chave = grupo.get("_id", Document.class);
+            Object status = chave.get("status");
+            if (status == null) {
+                continue;
+            }
+            long total = ((Number) grupo.get("total")).longValue();
+            String cenario = chaveCenario(chave.getString("cenario"));
+            String dia = chave.getString("dia");
+
+            somar(documentos.get(TIPO_GERAL), status.toString(), total);
+            somar(documentos.computeIfAbsent(TIPO_CENARIO + ":" + cenario,
+                    id -> novoDocumento(TIPO_CENARIO, cenario, inicio)), status.toString(), total);
+            if (dia != null) {
+                somar(documentos.computeIfAbsent(TIPO_DIA + ":" + dia,
+                        id -> novoDocumento(TIPO_DIA, dia, inicio)), status.toString(), total);
+            }
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLECAO);
+        documentos.forEach((id, documento) -> {
+            long versao = versoes.getOrDefault(id, 0L);
+            documento.append("_id", id).append("versao", versao);
+            bulk.replaceOne(semIncrementosDesde(id, versao), documento, FindAndReplaceOptions.options().upsert());
+        });
+        // Cenários e dias sem nenhuma assinatura, se ninguém os incrementou no meio do caminho
+        versoes.forEach((id, versao) -> {
+            if (!documentos.containsKey(id)) {
+                bulk.remove(semIncrementosDesde(id, versao));
+            }
+        });
+
+        int alterados = 0;
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // Upsert que não casou com a versão lida esbarra no _id existente: contador alterado
+            for (BulkWriteError erro : e.getErrors()) {
+                if (erro.getCode() != CHAVE_DUPLICADA) {
+                    throw e;
+                }
+                alterados++;
+            }
+        }
+        log.info("Contadores de assinaturas reconstruídos: {} documentos, {} alterados durante a reconstrução",
+                documentos.size() - alterados, alterados);
+        return alterados;
+    }
+
+    // O contador ainda está na versão lida antes da agregação (ou continua sem existir)
+    private Query semIncrementosDesde(String id, long versao) {
+        List<Long> versoesAceitas = new ArrayList<>();
+        versoesAceitas.add(versao);
+        if (versao == 0) {
+            versoesAceitas.add(null);
+        }
+        return Query.query(Criteria.where("_id").is(id).and("versao").in(versoesAceitas));
+    }
+
+    private long versao(Document documento) {
+        Object versao = documento.get("versao");
+        return versao instanceof Number numero ? numero.longValue() : 0L;
+    }
+
+    private Document novoDocumento(String tipo, String chave, Instant reconstruidoEm) {
+        return new Document("tipo", tipo)
+                .append("chave", chave)
+                .append("contagens", new Document())
+                .append("atualizadoEm", Date.from(reconstruidoEm));
+    }
+
+    private void somar(Document documento, String status, long total) {
+        Document contagens = documento.get("contagens", Document.class);
+        contagens.put(status, ((Number) contagens.getOrDefault(status, 0L)).longValue() + total);
+    }
+
+    private Query porId(String id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+
+    private Update incrementos(String tipo, String chave, StatusAssinatura anterior, StatusAssinatura novo) {
+        Update update = new Update()
+                .setOnInsert("tipo", tipo)
+                .setOnInsert("chave", chave)
+                .set("atualizadoEm", new Date())
+                .inc("versao", 1);
+        if (anterior != null) {
+            update.inc("contagens." + anterior.name(), -1);
+        }
+        if (novo != null) {
+            update.inc("contagens." + novo.name(), 1);
+        }
+        return update;
+    }
+
+    private String chaveCenario(String cenarioId) {
+        return StringUtils.hasText(cenarioId) ? cenarioId : SEM_CENARIO;
+    }
+
+    private String diaDeCriacao(String id) {
+        if (id == null || !ObjectId.isValid(id)) {
+            return null;
+        }
+        return new ObjectId(id).getDate().toInstant().atZone(fuso).toLocalDate().toString();
+    }
+
+    private Map<String, Long> contagensVazias() {
+        Map<String, Long> contagens = new LinkedHashMap<>();
+        for (StatusAssinatura status : StatusAssinatura.values()) {
+            contagens.put(status.name(), 0L);
+        }
+        return contagens;
+    }
+
+    private Map<String, Long> lerContagens(Document documento) {
+        Map<String, Long> contagens = contagensVazias();
+        if (documento != null) {
+            documento.forEach((status, valor) -> contagens.put(status, ((Number) valor).longValue()));
+        }
+        return contagens;
+    }
+}
@@ -0,0 +1,117 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.result.UpdateResult;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Varredura periódica que marca como EXPIRADA as assinaturas com link vencido. Cada lote
+ * lê só os ids (pelo índice status_expiraEm) e aplica um único updateMany (updateMulti) condicionado ao
+ * status, então uma assinatura usada no meio da varredura não é expirada por engano.
+ */
+@Component
+public class ExpiracaoLinksJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiracaoLinksJob.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ContadoresAssinatura contadores;
+    private final Counter contadorExpiradas;
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+
+    @Value("${app.assinatura.link.validade:P7D}")
+    private Duration validadeLink;
+
+    @Value("${app.assinatura.expiracao.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    public ExpiracaoLinksJob(MongoTemplate mongoTemplate, ContadoresAssinatura contadores, MeterRegistry registry) {
+        this.mongoTemplate = mongoTemplate;
+        this.contadores = contadores;
+        this.contadorExpiradas = Counter.builder("assinaturas.expiradas")
+                .description("Assinaturas marcadas como expiradas pela varredura de links")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.assinatura.expiracao.intervalo:PT5M}",
+            initialDelayString = "${app.assinatura.expiracao.intervalo:PT5M}")
+    public void varrer() {
+        if (!emExecucao.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDateTime agora = LocalDateTime.now();
+            long total = 0;
+            int expiradas;
+            do {
+                expiradas = expirarLote(agora);
+                total += expiradas;
+            } while (expiradas > 0 && !Thread.currentThread().isInterrupted());
+            if (total > 0) {
+                log.info("Varredura de links: {} assinaturas expiradas", total);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Varredura de links expirados interrompida: {}", e.getMessage());
+        } finally {
+            emExecucao.set(false);
+        }
+    }
+
+    /**
+     * Expira um lote e devolve quantos documentos mudaram de fato
+     */
+    private int expirarLote(LocalDateTime agora) {
+        Query vencidas = Query.query(vencidasEm(agora))
+                .limit(tamanhoLote);
+        vencidas.fields().include("_id", "status", "cenarioId");
+        List<AssinaturaModel> lote = mongoTemplate.find(vencidas, AssinaturaModel.class);
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        List<String> ids = lote.stream().map(AssinaturaModel::getId).toList();
+        UpdateResult resultado = mongoTemplate.updateMulti(
+                Query.query(vencidasEm(agora).and("_id").in(ids)),
+                new Update().set("status", StatusAssinatura.EXPIRADA).set("expiradaEm", agora),
+                AssinaturaModel.class);
+
+        List<AssinaturaModel> expiradas = lote;
+        if (resultado.getModifiedCount() < lote.size()) {
+            // Alguma foi usada entre a leitura e o update: conta só as que a varredura marcou
+            Query marcadas = Query.query(Criteria.where("_id").in(ids)
+                    .and("status").is(StatusAssinatura.EXPIRADA).and("expiradaEm").is(agora));
+            marcadas.fields().include("_id");
+            List<String> idsMarcados = mongoTemplate.find(marcadas, AssinaturaModel.class).stream()
+                    .map(AssinaturaModel::getId).toList();
+            expiradas = lote.stream().filter(assinatura -> idsMarcados.contains(assinatura.getId())).toList();
+        }
+
+        contadores.registrarTransicoes(expiradas, StatusAssinatura.EXPIRADA);
+        contadorExpiradas.increment(expiradas.size());
+        return expiradas.size();
+    }
+
+    // Links enviados antes de existir expiraEm vencem pela data de envio
+    private Criteria vencidasEm(LocalDateTime agora) {
+        return Criteria.where("status").in(MaquinaEstadosAssinatura.origens(StatusAssinatura.EXPIRADA))
+                .orOperator(
+                        Criteria.where("expiraEm").lt(agora),
+                        Criteria.where("expiraEm").is(null).and("dataEnvioLink").lt(agora.minus(validadeLink)));
+    }
+}
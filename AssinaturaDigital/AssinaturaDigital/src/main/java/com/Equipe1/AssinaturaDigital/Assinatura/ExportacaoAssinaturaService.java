@@ -0,0 +1,198 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Exportação de assinaturas para auditoria em NDJSON ou CSV. Os documentos vêm de um cursor
+ * do Mongo e são escritos um a um na resposta, então a memória usada não depende do número
+ * de linhas exportadas.
+ */
+@Service
+public class ExportacaoAssinaturaService {
+
+    public enum Formato { NDJSON, CSV }
+
+    private static final String COLECAO = "assinaturas";
+
+    // Campos exportáveis, na ordem das colunas do CSV
+    private static final List<String> CAMPOS_EXPORTACAO = List.of("id", "clienteId", "termoId", "cenarioId",
+            "status", "dataAssinatura", "dataEnvioLink", "expiraEm", "linkAssinatura", "cpfInformado", "localizacao", "ip",
+            "pdfPath", "pdfSha256", "pdfTamanho", "selfiePath", "selfieSha256");
+
+    private final MongoTemplate mongoTemplate;
+    private final int tamanhoLote;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public ExportacaoAssinaturaService(MongoTemplate mongoTemplate,
+                                       @Value("${app.exportacao.tamanho-lote:1000}") int tamanhoLote) {
+        this.mongoTemplate = mongoTemplate;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Filtros e campos da exportação, validados antes de a resposta começar a ser escrita
+     */
+    public record Filtro(StatusAssinatura status, LocalDateTime de, LocalDateTime ate,
+                         String clienteId, String cenarioId, List<String> campos) {
+    }
+
+    public Filtro criarFiltro(StatusAssinatura status, LocalDateTime de, LocalDateTime ate,
+                              String clienteId, String cenarioId, String campos) {
+        if (de != null && ate != null && de.isAfter(ate)) {
+            throw new IllegalArgumentException("Data inicial deve ser anterior à data final");
+        }
+        return new Filtro(status, de, ate, clienteId, cenarioId, resolverCampos(campos));
+    }
+
+    /**
+     * Escreve todas as assinaturas do filtro no stream, no formato pedido
+     */
+    public void exportar(Filtro filtro, Formato formato, OutputStream saida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), 64 * 1024);
+
+        try (Stream<Document> documentos = mongoTemplate.stream(montarQuery(filtro), Document.class, COLECAO)) {
+            if (formato == Formato.CSV) {
+                escreverCsv(documentos, filtro.campos(), escritor);
+            } else {
+                escreverNdjson(documentos, filtro.campos(), escritor);
+            }
+        }
+        escritor.flush();
+    }
+
+    private Query montarQuery(Filtro filtro) {
+        Query query = new Query();
+        if (filtro.status() != null) {
+            query.addCriteria(Criteria.where("status").is(filtro.status()));
+        }
+        if (filtro.de() != null || filtro.ate() != null) {
+            Criteria data = Criteria.where("dataAssinatura");
+            if (filtro.de() != null) {
+                data.gte(filtro.de());
+            }
+            if (filtro.ate() != null) {
+                data.lte(filtro.ate());
+            }
+            query.addCriteria(data);
+        }
+        if (StringUtils.hasText(filtro.clienteId())) {
+            query.addCriteria(Criteria.where("clienteId").is(filtro.clienteId()));
+        }
+        if (StringUtils.hasText(filtro.cenarioId())) {
+            query.addCriteria(Criteria.where("cenarioId").is(filtro.cenarioId()));
+        }
+
+        filtro.campos().stream().map(this::campoMongo).forEach(query.fields()::include);
+        // Sem ordenação: um sort em _id junto dos filtros obrigaria o Mongo a escolher entre o índice
+        // do filtro e um sort em memória; a exportação é um despejo completo, a ordem não importa
+        query.cursorBatchSize(tamanhoLote);
+        return query;
+    }
+
+    private void escreverNdjson(Stream<Document> documentos, List<String> campos, Writer escritor) throws IOException {
+        JsonGenerator gerador = jsonFactory.createGenerator(escritor);
+        gerador.setRootValueSeparator(null);
+
+        Iterable<Document> iteravel = documentos::iterator;
+        for (Document documento : iteravel) {
+            gerador.writeStartObject();
+            for (String campo : campos) {
+                gerador.writeFieldName(campo);
+                escreverValorJson(gerador, documento.get(campoMongo(campo)));
+            }
+            gerador.writeEndObject();
+            gerador.flush();
+            escritor.write('\n');
+        }
+    }
+
+    private void escreverCsv(Stream<Document> documentos, List<String> campos, Writer escritor) throws IOException {
+        escritor.write(String.join(",", campos));
+        escritor.write("\r\n");
+
+        Iterable<Document> iteravel = documentos::iterator;
+        for (Document documento : iteravel) {
+            for (int i = 0; i < campos.size(); i++) {
+                if (i > 0) {
+                    escritor.write(',');
+                }
+                Object valor = documento.get(campoMongo(campos.get(i)));
+                if (valor != null) {
+                    escritor.write(escaparCsv(texto(valor)));
+                }
+            }
+            escritor.write("\r\n");
+        }
+    }
+
+    private void escreverValorJson(JsonGenerator gerador, Object valor) throws IOException {
+        if (valor == null) {
+            gerador.writeNull();
+        } else if (valor instanceof Integer || valor instanceof Long) {
+            gerador.writeNumber(((Number) valor).longValue());
+        } else if (valor instanceof Boolean booleano) {
+            gerador.writeBoolean(booleano);
+        } else {
+            gerador.writeString(texto(valor));
+        }
+    }
+
+    private String texto(Object valor) {
+        if (valor instanceof ObjectId objectId) {
+            return objectId.toHexString();
+        }
+        if (valor instanceof Date data) {
+            return data.toInstant().toString();
+        }
+        return valor.toString();
+    }
+
+    private String escaparCsv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    private String campoMongo(String campo) {
+        return "id".equals(campo) ? "_id" : campo;
+    }
+
+    private List<String> resolverCampos(String campos) {
+        if (!StringUtils.hasText(campos)) {
+            return CAMPOS_EXPORTACAO;
+        }
+        Set<String> selecionados = new LinkedHashSet<>();
+        for (String campo : Arrays.stream(campos.split(",")).map(String::trim).filter(StringUtils::hasText).toList()) {
+            if (!CAMPOS_EXPORTACAO.contains(campo)) {
+                throw new IllegalArgumentException("Campo não permitido na exportação: " + campo);
+            }
+            selecionados.add(campo);
+        }
+        return selecionados.isEmpty() ? CAMPOS_EXPORTACAO : List.copyOf(selecionados);
+    }
+}
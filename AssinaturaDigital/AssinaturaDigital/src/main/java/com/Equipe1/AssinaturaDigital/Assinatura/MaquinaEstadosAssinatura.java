@@ -0,0 +1,49 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Transições permitidas entre os status de uma assinatura: para cada status de destino,
+ * de quais status ela pode partir. Usada como condição no update atômico, então duas
+ * requisições concorrentes nunca aplicam a mesma transição duas vezes.
+ */
+public final class MaquinaEstadosAssinatura {
+
+    private static final Map<StatusAssinatura, Set<StatusAssinatura>> ORIGENS = new EnumMap<>(StatusAssinatura.class);
+
+    static {
+        // Reenviar o link é permitido enquanto o cliente não assinou, inclusive depois de expirado
+        ORIGENS.put(StatusAssinatura.LINK_ENVIADO, EnumSet.of(
+                StatusAssinatura.CRIADA, StatusAssinatura.PENDENTE, StatusAssinatura.LINK_ENVIADO,
+                StatusAssinatura.EXPIRADA));
+        ORIGENS.put(StatusAssinatura.ASSINADA, EnumSet.of(
+                StatusAssinatura.CRIADA, StatusAssinatura.PENDENTE, StatusAssinatura.LINK_ENVIADO));
+        ORIGENS.put(StatusAssinatura.CONFIRMADA, EnumSet.of(
+                StatusAssinatura.CRIADA, StatusAssinatura.PENDENTE, StatusAssinatura.LINK_ENVIADO,
+                StatusAssinatura.ASSINADA, StatusAssinatura.RECUSADA));
+        ORIGENS.put(StatusAssinatura.RECUSADA, EnumSet.of(
+                StatusAssinatura.CRIADA, StatusAssinatura.PENDENTE, StatusAssinatura.LINK_ENVIADO,
+                StatusAssinatura.ASSINADA));
+        ORIGENS.put(StatusAssinatura.CANCELADA, EnumSet.of(
+                StatusAssinatura.CRIADA, StatusAssinatura.PENDENTE, StatusAssinatura.LINK_ENVIADO,
+                StatusAssinatura.ASSINADA, StatusAssinatura.RECUSADA, StatusAssinatura.EXPIRADA));
+        // Só links enviados e ainda não usados vencem
+        ORIGENS.put(StatusAssinatura.EXPIRADA, EnumSet.of(
+                StatusAssinatura.PENDENTE, StatusAssinatura.LINK_ENVIADO));
+    }
+
+    private MaquinaEstadosAssinatura() {
+    }
+
+    public static Set<StatusAssinatura> origens(StatusAssinatura destino) {
+        return Collections.unmodifiableSet(ORIGENS.getOrDefault(destino, EnumSet.noneOf(StatusAssinatura.class)));
+    }
+
+    public static boolean permite(StatusAssinatura origem, StatusAssinatura destino) {
+        return origens(destino).contains(origem);
+    }
+}
@@ -0,0 +1,80 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Métricas do funil de assinatura:
+ * assinaturas.operacao{operacao, resultado} (histograma de latência) e
+ * assinaturas.bytes{tipo, direcao} (bytes recebidos e enviados).
+ */
+@Component
+public class MetricasAssinatura {
+
+    private final MeterRegistry registry;
+
+    public MetricasAssinatura(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Executa a operação medindo a duração; exceções são contadas com resultado=erro e repassadas
+     */
+    public <T> T medir(String operacao, Supplier<T> acao) {
+        long inicio = System.nanoTime();
+        String resultado = "erro";
+        try {
+            T retorno = acao.get();
+            resultado = "sucesso";
+            return retorno;
+        } catch (IllegalArgumentException e) {
+            resultado = "invalido";
+            throw e;
+        } finally {
+            registrarDuracao(operacao, resultado, System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Versão reativa: mede do subscribe até o sinal de término, com os mesmos resultados
+     */
+    public <T> Mono<T> medir(String operacao, Mono<T> acao) {
+        return Mono.defer(() -> {
+            long inicio = System.nanoTime();
+            return acao
+                .doOnSuccess(retorno -> registrarDuracao(operacao, "sucesso", System.nanoTime() - inicio))
+                .doOnError(e -> registrarDuracao(operacao,
+                    e instanceof IllegalArgumentException ? "invalido" : "erro", System.nanoTime() - inicio));
+        });
+    }
+
+    private void registrarDuracao(String operacao, String resultado, long nanos) {
+        Timer.builder("assinaturas.operacao")
+            .description("Duração das operações do funil de assinatura")
+            .tag("operacao", operacao)
+            .tag("resultado", resultado)
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void registrarBytes(String tipo, String direcao, long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        Counter.builder("assinaturas.bytes")
+            .description("Bytes de PDFs e selfies recebidos (upload) e enviados (download)")
+            .baseUnit("bytes")
+            .tag("tipo", tipo)
+            .tag("direcao", direcao)
+            .register(registry)
+            .increment(bytes);
+    }
+}
@@ -0,0 +1,49 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Gauge assinaturas.status{status} com a quantidade de assinaturas em cada status.
+ * Os valores vêm dos contadores incrementais e são atualizados periodicamente, nunca
+ * durante o scrape do Prometheus.
+ */
+@Component
+public class MetricasStatusAssinatura {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricasStatusAssinatura.class);
+
+    private final ContadoresAssinatura contadores;
+    private final Map<StatusAssinatura, AtomicLong> quantidades = new EnumMap<>(StatusAssinatura.class);
+
+    public MetricasStatusAssinatura(ContadoresAssinatura contadores, MeterRegistry registry) {
+        this.contadores = contadores;
+        for (StatusAssinatura status : StatusAssinatura.values()) {
+            AtomicLong quantidade = new AtomicLong();
+            quantidades.put(status, quantidade);
+            Gauge.builder("assinaturas.status", quantidade, AtomicLong::get)
+                .description("Quantidade de assinaturas por status")
+                .tag("status", status.name())
+                .register(registry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.metricas.status.intervalo:PT1M}", initialDelayString = "${app.metricas.status.atraso-inicial:PT30S}")
+    public void atualizar() {
+        try {
+            Map<String, Long> porStatus = contadores.resumo(1).porStatus();
+            quantidades.forEach((status, quantidade) -> quantidade.set(porStatus.getOrDefault(status.name(), 0L)));
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível atualizar as métricas de status: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/Assinaturas/migracoes/selfies")
+public class MigracaoSelfiesController {
+
+    private final MigracaoSelfiesJob migracaoSelfiesJob;
+
+    public MigracaoSelfiesController(MigracaoSelfiesJob migracaoSelfiesJob) {
+        this.migracaoSelfiesJob = migracaoSelfiesJob;
+    }
+
+    // Iniciar migração (protegido)
+    @PostMapping
+    public ResponseEntity<MigracaoSelfiesJob.Progresso> iniciar() {
+        boolean iniciada = migracaoSelfiesJob.iniciar();
+        return ResponseEntity.status(iniciada ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(migracaoSelfiesJob.progresso());
+    }
+
+    // Acompanhar progresso (protegido)
+    @GetMapping
+    public ResponseEntity<MigracaoSelfiesJob.Progresso> progresso() {
+        return ResponseEntity.ok(migracaoSelfiesJob.progresso());
+    }
+}
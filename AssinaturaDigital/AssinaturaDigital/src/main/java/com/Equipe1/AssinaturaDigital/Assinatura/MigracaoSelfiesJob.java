@@ -0,0 +1,156 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.Equipe1.AssinaturaDigital.Armazenamento.DocumentoSalvo;
+import com.Equipe1.AssinaturaDigital.Infra.Concorrencia.FabricaThreads;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Migração que tira o campo legado selfieBase64 dos documentos de assinatura.
+ * Percorre a coleção com um cursor (sem carregar tudo na memória), grava a imagem no
+ * armazenamento quando ela ainda não foi externalizada e remove o campo com $unset.
+ */
+@Component
+public class MigracaoSelfiesJob {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracaoSelfiesJob.class);
+    private static final String COLECAO = "assinaturas";
+    private static final String CAMPO_LEGADO = "selfieBase64";
+
+    public record Progresso(boolean emExecucao, long pendentesNoInicio, long processadas, long migradas,
+                            long jaExternalizadas, long falhas, Instant iniciadaEm, Instant concluidaEm) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final SelfieService selfieService;
+    private final ExecutorService executor;
+
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+    private final AtomicLong pendentesNoInicio = new AtomicLong();
+    private final AtomicLong processadas = new AtomicLong();
+    private final AtomicLong migradas = new AtomicLong();
+    private final AtomicLong jaExternalizadas = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private volatile Instant iniciadaEm;
+    private volatile Instant concluidaEm;
+
+    private final Counter contadorMigradas;
+    private final Counter contadorJaExternalizadas;
+    private final Counter contadorFalhas;
+
+    public MigracaoSelfiesJob(MongoTemplate mongoTemplate, SelfieService selfieService, FabricaThreads fabricaThreads,
+                              MeterRegistry registry) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = fabricaThreads.unicaThread("migracao-selfies");
+        this.selfieService = selfieService;
+        this.contadorMigradas = contador(registry, "migrada");
+        this.contadorJaExternalizadas = contador(registry, "ja_externalizada");
+        this.contadorFalhas = contador(registry, "falha");
+        registry.gauge("assinaturas.migracao.selfies.pendentes", this,
+                job -> Math.max(0, job.pendentesNoInicio.get() - job.processadas.get()));
+    }
+
+    /**
+     * Dispara a migração em segundo plano. Retorna false se já houver uma em andamento.
+     */
+    public boolean iniciar() {
+        if (!emExecucao.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                executar();
+            } finally {
+                emExecucao.set(false);
+            }
+        });
+        return true;
+    }
+
+    public Progresso progresso() {
+        return new Progresso(emExecucao.get(), pendentesNoInicio.get(), processadas.get(), migradas.get(),
+                jaExternalizadas.get(), falhas.get(), iniciadaEm, concluidaEm);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private void executar() {
+        iniciadaEm = Instant.now();
+        concluidaEm = null;
+        processadas.set(0);
+        migradas.set(0);
+        jaExternalizadas.set(0);
+        falhas.set(0);
+
+        Query pendentes = Query.query(Criteria.where(CAMPO_LEGADO).exists(true));
+        pendentesNoInicio.set(mongoTemplate.count(pendentes, COLECAO));
+        pendentes.fields().include("_id", CAMPO_LEGADO, "selfiePath");
+        pendentes.cursorBatchSize(50);
+
+        log.info("Migração de selfies iniciada: {} documentos pendentes", pendentesNoInicio.get());
+        try (Stream<Document> documentos = mongoTemplate.stream(pendentes, Document.class, COLECAO)) {
+            documentos.forEach(this::migrar);
+        } catch (RuntimeException e) {
+            log.error("Migração de selfies interrompida", e);
+        } finally {
+            concluidaEm = Instant.now();
+            log.info("Migração de selfies concluída: {} migradas, {} já externalizadas, {} falhas",
+                    migradas.get(), jaExternalizadas.get(), falhas.get());
+        }
+    }
+
+    private void migrar(Document documento) {
+        Object id = documento.get("_id");
+        try {
+            Update update = new Update().unset(CAMPO_LEGADO);
+            String selfieBase64 = documento.getString(CAMPO_LEGADO);
+
+            if (StringUtils.hasText(documento.getString("selfiePath"))) {
+                // O JPG já foi gravado na confirmação; basta remover a cópia em base64
+                jaExternalizadas.incrementAndGet();
+                contadorJaExternalizadas.increment();
+            } else if (StringUtils.hasText(selfieBase64)) {
+                DocumentoSalvo selfie = selfieService.salvarSelfieComoJpg(selfieBase64, id.toString());
+                update.set("selfiePath", selfie.caminho()).set("selfieSha256", selfie.sha256());
+                migradas.incrementAndGet();
+                contadorMigradas.increment();
+            }
+
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)), update, COLECAO);
+        } catch (RuntimeException e) {
+            falhas.incrementAndGet();
+            contadorFalhas.increment();
+            log.warn("Falha ao migrar selfie da assinatura {}", id, e);
+        } finally {
+            processadas.incrementAndGet();
+        }
+    }
+
+    private static Counter contador(MeterRegistry registry, String resultado) {
+        return Counter.builder("assinaturas.migracao.selfies")
+                .description("Documentos processados pela migração de selfies")
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+}
@@ -0,0 +1,21 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import java.util.List;
+
+/**
+ * Resultado da criação em lote: o PDF é gravado uma vez e cada cliente recebe um item,
+ * com a assinatura criada ou o motivo da falha
+ */
+public record ResultadoLote(String pdfSha256, int criadas, int falhas, List<Item> itens) {
+
+    public record Item(String clienteId, String assinaturaId, String linkAssinatura, String erro) {
+
+        static Item sucesso(AssinaturaModel assinatura) {
+            return new Item(assinatura.getClienteId(), assinatura.getId(), assinatura.getLinkAssinatura(), null);
+        }
+
+        static Item falha(String clienteId, String erro) {
+            return new Item(clienteId, null, null, erro);
+        }
+    }
+}
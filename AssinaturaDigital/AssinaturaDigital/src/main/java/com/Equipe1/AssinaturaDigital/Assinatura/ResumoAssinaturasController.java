@@ -0,0 +1,45 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/Assinaturas/resumo")
+public class ResumoAssinaturasController {
+
+    private static final int MAXIMO_DIAS = 366;
+
+    private final ContadoresAssinatura contadores;
+
+    public ResumoAssinaturasController(ContadoresAssinatura contadores) {
+        this.contadores = contadores;
+    }
+
+    // Contagens por status, cenário e dia, lidas da coleção de contadores (protegido)
+    @GetMapping
+    public ResponseEntity<?> resumo(@RequestParam(defaultValue = "30") int dias) {
+        if (dias < 1 || dias > MAXIMO_DIAS) {
+            return ResponseEntity.badRequest().body("dias deve estar entre 1 e " + MAXIMO_DIAS);
+        }
+        return ResponseEntity.ok(contadores.resumo(dias));
+    }
+
+    // Recalcular os contadores a partir das assinaturas (protegido)
+    @PostMapping("/reconstruir")
+    public ResponseEntity<ContadoresAssinatura.Reconstrucao> reconstruir() {
+        boolean iniciada = contadores.iniciarReconstrucao();
+        return ResponseEntity.status(iniciada ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(contadores.situacaoReconstrucao());
+    }
+
+    // Acompanhar a reconstrução (protegido)
+    @GetMapping("/reconstruir")
+    public ResponseEntity<ContadoresAssinatura.Reconstrucao> situacaoReconstrucao() {
+        return ResponseEntity.ok(contadores.situacaoReconstrucao());
+    }
+}
@@ -0,0 +1,399 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.Equipe1.AssinaturaDigital.Armazenamento.ArmazenamentoDocumentos;
+import com.Equipe1.AssinaturaDigital.Armazenamento.DocumentoSalvo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Grava selfies como arquivos binários no armazenamento de documentos.
+ * No banco ficam apenas o caminho e o SHA-256 da imagem.
+ *
+ * A imagem é decodificada uma única vez, já reduzida durante a leitura (subsampling),
+ * redimensionada para no máximo app.selfie.dimensao-maxima e regravada como JPEG com
+ * qualidade fixa. Esse trabalho roda num pool limitado para que rajadas de fotos de
+ * câmera grandes não consumam toda a CPU e memória do servidor.
+ */
+@Service
+public class SelfieService {
+
+    private static final Logger log = LoggerFactory.getLogger(SelfieService.class);
+    private static final String JPG_EXTENSION = ".jpg";
+    private static final String SELFIES_PATH = "/selfies/";
+    private static final int TAMANHO_MAXIMO_PREFIXO = 128;
+
+    private final ArmazenamentoDocumentos armazenamento;
+    private final ThreadPoolExecutor executor;
+    private final Timer tempoGravacao;
+
+    private final int dimensaoMaxima;
+    private final float qualidadeJpeg;
+    private final long pixelsMaximos;
+    private final DataSize tamanhoMaximo;
+    private final Duration timeout;
+
+    public SelfieService(ArmazenamentoDocumentos armazenamento,
+                         @Value("${app.selfie.dimensao-maxima:1280}") int dimensaoMaxima,
+                         @Value("${app.selfie.qualidade-jpeg:0.8}") float qualidadeJpeg,
+                         @Value("${app.selfie.pixels-maximos:50000000}") long pixelsMaximos,
+                         @Value("${app.selfie.tamanho-maximo:10MB}") DataSize tamanhoMaximo,
+                         @Value("${app.selfie.timeout:PT15S}") Duration timeout,
+                         @Value("${app.selfie.threads:0}") int threads,
+                         @Value("${app.selfie.fila:32}") int fila,
+                         MeterRegistry registry) {
+        this.armazenamento = armazenamento;
+        this.tempoGravacao = Timer.builder("armazenamento.gravacao")
+                .description("Latência de gravação de documentos no armazenamento")
+                .tag("tipo", "selfie")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.dimensaoMaxima = dimensaoMaxima;
+        this.qualidadeJpeg = qualidadeJpeg;
+        this.pixelsMaximos = pixelsMaximos;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.timeout = timeout;
+
+        int tamanhoPool = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger sequencia = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(tamanhoPool, tamanhoPool, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila), r -> {
+                    Thread thread = new Thread(r, "selfie-" + sequencia.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Decodifica o base64 (com ou sem prefixo data:image/...;base64,) direto da String,
+     * sem split nem cópia intermediária, e grava a selfie normalizada
+     */
+    public DocumentoSalvo salvarSelfieComoJpg(String selfieBase64, String assinaturaId) {
+        int inicio = inicioDoConteudo(selfieBase64);
+
+        // 4 caracteres de base64 viram 3 bytes
+        long tamanhoEstimado = (selfieBase64.length() - inicio) / 4L * 3L;
+        if (tamanhoEstimado > tamanhoMaximo.toBytes()) {
+            throw new SelfieGrandeDemaisException("Selfie excede o tamanho máximo de " + tamanhoMaximo.toMegabytes() + " MB.");
+        }
+
+        InputStream imagem = Base64.getMimeDecoder().wrap(new TextoAsciiInputStream(selfieBase64, inicio));
+        return salvarSelfieComoJpg(imagem, assinaturaId);
+    }
+
+    /**
+     * Grava a selfie recebida como arquivo binário (multipart), lendo direto do upload
+     */
+    public DocumentoSalvo salvarSelfieComoJpg(MultipartFile selfie, String assinaturaId) {
+        if (selfie.getSize() > tamanhoMaximo.toBytes()) {
+            throw new SelfieGrandeDemaisException("Selfie excede o tamanho máximo de " + tamanhoMaximo.toMegabytes() + " MB.");
+        }
+        try (InputStream imagem = selfie.getInputStream()) {
+            return salvarSelfieComoJpg(imagem, assinaturaId);
+        } catch (IOException e) {
+            throw new AssinaturaService.AssinaturaException("Erro ao ler a selfie enviada", e);
+        }
+    }
+
+    /**
+     * Normaliza a imagem lida do stream (JPEG, PNG...) e grava um único JPG
+     */
+    public DocumentoSalvo salvarSelfieComoJpg(InputStream imagem, String assinaturaId) {
+        // Decide uma única vez quem fica com a selfie: quem chamou (resultado entregue) ou
+        // ninguém (tempo esgotado), e nesse caso a própria tarefa apaga o que gravou
+        AtomicBoolean decidida = new AtomicBoolean();
+        Future<DocumentoSalvo> tarefa;
+        try {
+            // Leva o requestId do MDC para a thread do pool, para os logs continuarem correlacionados
+            Map<String, String> contextoLog = MDC.getCopyOfContextMap();
+            tarefa = executor.submit(() -> {
+                if (contextoLog != null) {
+                    MDC.setContextMap(contextoLog);
+                }
+                try {
+                    return normalizarEGravar(imagem, assinaturaId, decidida);
+                } finally {
+                    MDC.clear();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new SelfieIndisponivelException("Processamento de selfies sobrecarregado, tente novamente.");
+        }
+
+        try {
+            return tarefa.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (!decidida.compareAndSet(false, true)) {
+                // A tarefa terminou a gravação no limite do tempo: a selfie é desta requisição
+                return resultadoEntregue(tarefa);
+            }
+            tarefa.cancel(true);
+            throw new SelfieIndisponivelException("Tempo esgotado ao processar a selfie, tente novamente.");
+        } catch (InterruptedException e) {
+            if (decidida.compareAndSet(false, true)) {
+                tarefa.cancel(true);
+            } else {
+                apagarSilenciosamente(resultadoEntregue(tarefa).caminho());
+            }
+            Thread.currentThread().interrupt();
+            throw new AssinaturaService.AssinaturaException("Processamento da selfie interrompido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SelfieInvalidaException invalida) {
+                throw invalida;
+            }
+            throw new AssinaturaService.AssinaturaException("Erro ao salvar selfie como JPG", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private DocumentoSalvo normalizarEGravar(InputStream imagem, String assinaturaId, AtomicBoolean decidida)
+            throws IOException, NoSuchAlgorithmException {
+        BufferedImage normalizada = lerReduzida(imagem);
+        byte[] jpeg = codificarJpeg(normalizada);
+
+        // Quem chamou já desistiu: nem grava
+        if (decidida.get()) {
+            throw new CancellationException("Selfie abandonada antes da gravação");
+        }
+
+        // Gera nome único para a selfie
+        String nomeJpg = assinaturaId + "_selfie_" + System.currentTimeMillis() + JPG_EXTENSION;
+        String caminhoSelfie = SELFIES_PATH + nomeJpg;
+
+        long inicio = System.nanoTime();
+        armazenamento.salvar(ArmazenamentoDocumentos.chaveDe(caminhoSelfie), new ByteArrayInputStream(jpeg), jpeg.length);
+        tempoGravacao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+
+        // Quem chamou desistiu durante a gravação: o arquivo ficaria sem dono
+        if (!decidida.compareAndSet(false, true)) {
+            apagarSilenciosamente(caminhoSelfie);
+            throw new CancellationException("Selfie abandonada durante a gravação");
+        }
+        return new DocumentoSalvo(caminhoSelfie, sha256(jpeg), jpeg.length);
+    }
+
+    // A tarefa já marcou a entrega e só falta retornar: a espera é de instantes
+    private static DocumentoSalvo resultadoEntregue(Future<DocumentoSalvo> tarefa) {
+        try {
+            return tarefa.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new AssinaturaService.AssinaturaException("Erro ao salvar selfie como JPG", e);
+        }
+    }
+
+    private void apagarSilenciosamente(String caminhoSelfie) {
+        try {
+            armazenamento.apagar(ArmazenamentoDocumentos.chaveDe(caminhoSelfie));
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar a selfie abandonada {}: {}", caminhoSelfie, e.getMessage());
+        }
+    }
+
+    /**
+     * Lê as dimensões pelo cabeçalho e decodifica já com subsampling, de modo que uma foto
+     * de 12 MP nunca é expandida inteira na memória
+     */
+    private BufferedImage lerReduzida(InputStream imagem) throws IOException {
+        try (ImageInputStream entrada = new MemoryCacheImageInputStream(imagem)) {
+            Iterator<ImageReader> leitores = ImageIO.getImageReaders(entrada);
+            if (!leitores.hasNext()) {
+                throw new SelfieInvalidaException("Selfie deve ser uma imagem válida.");
+            }
+
+            ImageReader leitor = leitores.next();
+            try {
+                leitor.setInput(entrada, true, true);
+                int largura = leitor.getWidth(0);
+                int altura = leitor.getHeight(0);
+                if ((long) largura * altura > pixelsMaximos) {
+                    throw new SelfieInvalidaException("Selfie com resolução acima do permitido.");
+                }
+
+                ImageReadParam parametros = leitor.getDefaultReadParam();
+                int fator = Math.max(1, Math.max(largura, altura) / dimensaoMaxima);
+                parametros.setSourceSubsampling(fator, fator, 0, 0);
+
+                return redimensionar(leitor.read(0, parametros));
+            } catch (IIOException | RuntimeException e) {
+                if (e instanceof SelfieInvalidaException invalida) {
+                    throw invalida;
+                }
+                // Imagem truncada ou corrompida: erro de quem enviou, não do servidor
+                throw new SelfieInvalidaException("Selfie deve ser uma imagem válida.", e);
+            } finally {
+                leitor.dispose();
+            }
+        }
+    }
+
+    // Ajuste fino para caber em dimensaoMaxima, sempre em RGB (o JPEG não aceita canal alfa)
+    private BufferedImage redimensionar(BufferedImage original) {
+        double escala = Math.min(1.0, (double) dimensaoMaxima / Math.max(original.getWidth(), original.getHeight()));
+        int largura = Math.max(1, (int) Math.round(original.getWidth() * escala));
+        int altura = Math.max(1, (int) Math.round(original.getHeight() * escala));
+
+        BufferedImage destino = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+        Graphics2D grafico = destino.createGraphics();
+        try {
+            grafico.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            grafico.drawImage(original, 0, 0, largura, altura, Color.WHITE, null);
+        } finally {
+            grafico.dispose();
+        }
+        return destino;
+    }
+
+    private byte[] codificarJpeg(BufferedImage imagem) throws IOException {
+        ImageWriter escritor = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (MemoryCacheImageOutputStream saida = new MemoryCacheImageOutputStream(bytes)) {
+            ImageWriteParam parametros = escritor.getDefaultWriteParam();
+            parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parametros.setCompressionQuality(qualidadeJpeg);
+
+            escritor.setOutput(saida);
+            escritor.write(null, new IIOImage(imagem, null, null), parametros);
+        } finally {
+            escritor.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    // Pula o prefixo "data:image/jpeg;base64," procurando a vírgula só no começo da String
+    private static int inicioDoConteudo(String selfieBase64) {
+        if (!selfieBase64.startsWith("data:")) {
+            return 0;
+        }
+        int limite = Math.min(selfieBase64.length(), TAMANHO_MAXIMO_PREFIXO);
+        for (int i = 0; i < limite; i++) {
+            if (selfieBase64.charAt(i) == ',') {
+                return i + 1;
+            }
+        }
+        throw new SelfieInvalidaException("Selfie em formato data URL inválido.");
+    }
+
+    private static String sha256(byte[] conteudo) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(conteudo));
+    }
+
+    /**
+     * Lê os caracteres (ASCII) de uma String como bytes, a partir de um deslocamento
+     */
+    private static final class TextoAsciiInputStream extends InputStream {
+
+        private final String texto;
+        private int posicao;
+
+        TextoAsciiInputStream(String texto, int inicio) {
+            this.texto = texto;
+            this.posicao = inicio;
+        }
+
+        @Override
+        public int read() {
+            return posicao < texto.length() ? texto.charAt(posicao++) & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] destino, int deslocamento, int tamanho) {
+            if (tamanho == 0) {
+                return 0;
+            }
+            if (posicao >= texto.length()) {
+                return -1;
+            }
+            int lidos = Math.min(tamanho, texto.length() - posicao);
+            for (int i = 0; i < lidos; i++) {
+                destino[deslocamento + i] = (byte) texto.charAt(posicao++);
+            }
+            return lidos;
+        }
+
+        @Override
+        public int available() {
+            return texto.length() - posicao;
+        }
+    }
+
+    /**
+     * Pool de processamento cheio ou lento: o cliente deve tentar de novo
+     */
+    public static class SelfieIndisponivelException extends AssinaturaService.AssinaturaException {
+        public SelfieIndisponivelException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Selfie ausente, corrompida ou que não é imagem: erro de quem enviou (400)
+     */
+    public static class SelfieInvalidaException extends AssinaturaService.AssinaturaException {
+        public SelfieInvalidaException(String message) {
+            super(message);
+        }
+
+        public SelfieInvalidaException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Selfie acima de app.selfie.tamanho-maximo (413)
+     */
+    public static class SelfieGrandeDemaisException extends SelfieInvalidaException {
+        public SelfieGrandeDemaisException(String message) {
+            super(message);
+        }
+    }
+}
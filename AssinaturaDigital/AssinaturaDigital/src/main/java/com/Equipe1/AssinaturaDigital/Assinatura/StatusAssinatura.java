@@ -7,6 +7,7 @@ public enum StatusAssinatura {
     CONFIRMADA("Confirmada"),    // novo: validação com CPF/selfie OK
     RECUSADA("Recusada"),        // novo: validação com CPF/selfie falhou
     CANCELADA("Cancelada"),
+    EXPIRADA("Expirada"),        // link venceu sem assinatura
     PENDENTE("Pendente");
 
     private final String descricao;
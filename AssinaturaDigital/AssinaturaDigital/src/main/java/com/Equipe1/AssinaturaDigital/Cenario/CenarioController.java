@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 
 
@@ -31,6 +32,20 @@ public class CenarioController {
         return ResponseEntity.ok(cenarioService.listarCenarios());
     }
 
+    // Listar cenarios por página
+    @GetMapping("/pagina")
+    public ResponseEntity<?> listarCenariosPaginados(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(defaultValue = "asc") String ordem,
+            @RequestParam(required = false) String campos) {
+        try {
+            return ResponseEntity.ok(cenarioService.listarPagina(cursor, tamanho, "desc".equalsIgnoreCase(ordem), campos));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CenarioModel> buscarPorId(@PathVariable String id) {
         return cenarioService.buscarPorId(id)
@@ -2,41 +2,60 @@ package com.Equipe1.AssinaturaDigital.Cenario;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.stereotype.Service;
 
+import com.Equipe1.AssinaturaDigital.Infra.Cache.CacheEntidade;
+import com.Equipe1.AssinaturaDigital.Infra.Cache.CacheEntidades;
+import com.Equipe1.AssinaturaDigital.Infra.Paginacao.ConsultaPaginada;
+import com.Equipe1.AssinaturaDigital.Infra.Paginacao.Pagina;
+
 @Service
 public class CenarioService {
 
+    private static final Set<String> CAMPOS_LISTAGEM = Set.of("titulo", "funcionarioId", "clienteId", "termosIds", "dataCriacao");
+    private static final Set<String> CAMPOS_RESUMO = Set.of("titulo", "clienteId", "dataCriacao");
+
     private CenarioRepository cenarioRepository;
+    private ConsultaPaginada consultaPaginada;
+    // Cenários por id
+    private final CacheEntidade<CenarioModel> cache;
 
-    public CenarioService(CenarioRepository cenarioRepository) {
+    public CenarioService(CenarioRepository cenarioRepository, ConsultaPaginada consultaPaginada, CacheEntidades caches) {
         this.cenarioRepository = cenarioRepository;
+        this.consultaPaginada = consultaPaginada;
+        this.cache = caches.criar("cenarios");
     }
 
     //criar cenario
     public CenarioModel criarCenario(CenarioModel cenario){
-        return cenarioRepository.save(cenario);
+        CenarioModel salvo = cenarioRepository.save(cenario);
+        cache.invalidar(salvo.getId());
+        return salvo;
     }
     //Editar cenario
     public Optional<CenarioModel> updateCenario(String id,CenarioModel dadosAtualizados){
         return cenarioRepository.findById(id)
             .map(cenario ->{
                 cenario.setTitulo(dadosAtualizados.getTitulo());
-                return cenarioRepository.save(cenario);
+                CenarioModel salvo = cenarioRepository.save(cenario);
+                cache.invalidar(id);
+                return salvo;
             });
     }
     //excluir cenario
     public boolean apagarCenario(String id){
         if (cenarioRepository.existsById(id)) {
             cenarioRepository.deleteById(id);
+            cache.invalidar(id);
             return true;
         }
         return false;
     }
     //buscar cenario 
     public Optional<CenarioModel> buscarPorId(String id){
-        return cenarioRepository.findById(id);
+        return cache.buscar(id, cenarioRepository::findById);
     }
     public List<CenarioModel> buscarPorTitulo(String titulo) {
         return cenarioRepository.findByTitulo(titulo);
@@ -45,4 +64,9 @@ public class CenarioService {
     public List<CenarioModel> listarCenarios(){
         return cenarioRepository.findAll();
     }
+    //Listar cenario por página
+    public Pagina<CenarioModel> listarPagina(String cursor, Integer tamanho, boolean decrescente, String campos){
+        return consultaPaginada.buscar(CenarioModel.class, null, cursor, tamanho, decrescente,
+                ConsultaPaginada.resolverCampos(campos, CAMPOS_LISTAGEM, CAMPOS_RESUMO), CenarioModel::getId);
+    }
 }
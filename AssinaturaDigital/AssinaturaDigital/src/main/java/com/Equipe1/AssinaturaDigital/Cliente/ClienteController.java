@@ -1,8 +1,11 @@
 package com.Equipe1.AssinaturaDigital.Cliente;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -12,9 +15,11 @@ import java.util.List;
 public class ClienteController {
 
     private final ClienteService clienteService;
+    private final ImportacaoClientesJob importacaoClientesJob;
 
-    public ClienteController(ClienteService clienteService) {
+    public ClienteController(ClienteService clienteService, ImportacaoClientesJob importacaoClientesJob) {
         this.clienteService = clienteService;
+        this.importacaoClientesJob = importacaoClientesJob;
     }
 
     @PostMapping
@@ -28,6 +33,38 @@ public class ClienteController {
         return ResponseEntity.ok(clienteService.listarTodos());
     }
 
+    @GetMapping("/pagina")
+    public ResponseEntity<?> listarClientesPaginados(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(defaultValue = "asc") String ordem,
+            @RequestParam(required = false) String campos) {
+        try {
+            return ResponseEntity.ok(clienteService.listarPagina(cursor, tamanho, "desc".equalsIgnoreCase(ordem), campos));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Importação em massa (CSV ou NDJSON): processada em segundo plano, acompanhe pelo id devolvido
+    @PostMapping(value = "/importacoes", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importarClientes(
+            @RequestParam("arquivo") MultipartFile arquivo,
+            @RequestParam(required = false) String formato) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(importacaoClientesJob.iniciar(arquivo, formato));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/importacoes/{id}")
+    public ResponseEntity<ImportacaoClientesJob.Progresso> progressoImportacao(@PathVariable String id) {
+        return importacaoClientesJob.progresso(id)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ClienteModel> buscarPorId(@PathVariable String id) {
         return clienteService.buscarById(id)
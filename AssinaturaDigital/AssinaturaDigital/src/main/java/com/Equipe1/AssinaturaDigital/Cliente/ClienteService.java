@@ -2,28 +2,71 @@ package com.Equipe1.AssinaturaDigital.Cliente;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+
 import org.springframework.stereotype.Service;
 
+import com.Equipe1.AssinaturaDigital.Infra.Cache.CacheEntidade;
+import com.Equipe1.AssinaturaDigital.Infra.Cache.CacheEntidades;
+import com.Equipe1.AssinaturaDigital.Infra.Paginacao.ConsultaPaginada;
+import com.Equipe1.AssinaturaDigital.Infra.Paginacao.Pagina;
+
 
 @Service
 public class ClienteService {
 
+    private static final Set<String> CAMPOS_LISTAGEM = Set.of("nome", "email", "telefone", "cpf");
+    private static final Set<String> CAMPOS_RESUMO = Set.of("nome", "email");
+
     private ClienteRepository clienteRepository;
+    private ConsultaPaginada consultaPaginada;
+    // Clientes por id; lido em toda confirmação de assinatura (CPF)
+    private final CacheEntidade<ClienteModel> cache;
 
-    public ClienteService(ClienteRepository clienteRepository) {
+    public ClienteService(ClienteRepository clienteRepository, ConsultaPaginada consultaPaginada, CacheEntidades caches) {
         this.clienteRepository = clienteRepository;
+        this.consultaPaginada = consultaPaginada;
+        this.cache = caches.criar("clientes");
     }
 
     public ClienteModel criarCliente(ClienteModel cliente){
-        return clienteRepository.save(cliente);
+        ClienteModel salvo = clienteRepository.save(cliente);
+        cache.invalidar(salvo.getId());
+        return salvo;
     }
 
     public List<ClienteModel> listarTodos(){
         return clienteRepository.findAll();
     }
 
+    public Pagina<ClienteModel> listarPagina(String cursor, Integer tamanho, boolean decrescente, String campos){
+        return consultaPaginada.buscar(ClienteModel.class, null, cursor, tamanho, decrescente,
+                ConsultaPaginada.resolverCampos(campos, CAMPOS_LISTAGEM, CAMPOS_RESUMO), ClienteModel::getId);
+    }
+
     public Optional<ClienteModel> buscarById(String id){
-        return clienteRepository.findById(id);
+        return cache.buscar(id, clienteRepository::findById);
+    }
+
+    /**
+     * Cliente já em cache, sem consultar o banco (fluxo público reativo, que lê pelo próprio driver)
+     */
+    public Optional<ClienteModel> emCache(String id) {
+        return cache.emCache(id);
+    }
+
+    /**
+     * Marca lida antes de carregar o cliente fora deste serviço; é passada de volta em {@link #guardarEmCache}
+     */
+    public long geracaoCache() {
+        return cache.geracao();
+    }
+
+    /**
+     * Guarda um cliente carregado fora deste serviço, descartado se houve escrita desde a geração lida
+     */
+    public void guardarEmCache(String id, ClienteModel cliente, long geracao) {
+        cache.guardar(id, cliente, geracao);
     }
 
     public Optional<ClienteModel> updateCliente(String id,ClienteModel dadosAtualizadoos){
@@ -31,7 +74,9 @@ public class ClienteService {
             .map(cliente ->{
                 cliente.setNome(dadosAtualizadoos.getNome());
                 cliente.setEmail(dadosAtualizadoos.getEmail());
-                return clienteRepository.save(cliente);
+                ClienteModel salvo = clienteRepository.save(cliente);
+                cache.invalidar(id);
+                return salvo;
             });
 
     }
@@ -39,6 +84,7 @@ public class ClienteService {
     public boolean apagarCliente(String id){
         if (clienteRepository.existsById(id)) {
             clienteRepository.deleteById(id);
+            cache.invalidar(id);
             return true;
         }
         return false;
@@ -0,0 +1,529 @@
+package com.Equipe1.AssinaturaDigital.Cliente;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.Equipe1.AssinaturaDigital.Infra.Concorrencia.FabricaThreads;
+import com.Equipe1.AssinaturaDigital.Infra.Indices.IndicesMongo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Importação de clientes em massa (CSV ou NDJSON). O upload é copiado para um temporário e
+ * processado em segundo plano linha a linha: cada lote é validado, deduplicado por CPF e e-mail
+ * contra a base e gravado com um bulk insert não ordenado. A memória usada depende só do
+ * tamanho do lote, não do arquivo.
+ */
+@Component
+public class ImportacaoClientesJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoClientesJob.class);
+    private static final List<String> COLUNAS = List.of("nome", "email", "telefone", "cpf");
+    private static final int MAX_ERROS_REGISTRADOS = 100;
+    private static final int MAX_IMPORTACOES_GUARDADAS = 20;
+    private static final int CODIGO_CHAVE_DUPLICADA = 11000;
+
+    public enum Formato { CSV, NDJSON }
+
+    public enum Estado { AGUARDANDO, EM_EXECUCAO, CONCLUIDA, FALHOU }
+
+    public record ErroLinha(long linha, String motivo) {
+    }
+
+    public record Progresso(String id, Formato formato, Estado estado, long linhasLidas, long inseridos,
+                            long duplicados, long invalidos, long falhas, List<ErroLinha> erros,
+                            Instant iniciadaEm, Instant concluidaEm) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+
+    // Só as últimas importações ficam disponíveis para consulta
+    private final Cache<String, Importacao> importacoes = Caffeine.newBuilder()
+            .maximumSize(MAX_IMPORTACOES_GUARDADAS)
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
+
+    private final Counter contadorInseridos;
+    private final Counter contadorDuplicados;
+    private final Counter contadorInvalidos;
+    private final Counter contadorFalhas;
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.importacao.clientes.tamanho-lote:1000}")
+    private int tamanhoLote;
+
+    public ImportacaoClientesJob(MongoTemplate mongoTemplate, Validator validator, ObjectMapper objectMapper,
+                                 FabricaThreads fabricaThreads, MeterRegistry registry) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = fabricaThreads.unicaThread("importacao-clientes");
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.contadorInseridos = contador(registry, "inserido");
+        this.contadorDuplicados = contador(registry, "duplicado");
+        this.contadorInvalidos = contador(registry, "invalido");
+        this.contadorFalhas = contador(registry, "falha");
+    }
+
+    /**
+     * Recebe o arquivo e agenda a importação; o processamento continua depois da resposta
+     */
+    public Progresso iniciar(MultipartFile arquivo, String formatoInformado) {
+        if (arquivo == null || arquivo.isEmpty()) {
+            throw new IllegalArgumentException("Arquivo de importação é obrigatório");
+        }
+        Formato formato = resolverFormato(formatoInformado, arquivo.getOriginalFilename());
+
+        Path temporario;
+        try {
+            Path diretorio = Paths.get(uploadDir, "tmp");
+            Files.createDirectories(diretorio);
+            temporario = Files.createTempFile(diretorio, "clientes-", ".tmp");
+            arquivo.transferTo(temporario);
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível receber o arquivo de importação", e);
+        }
+
+        Importacao importacao = new Importacao(UUID.randomUUID().toString(), formato);
+        importacoes.put(importacao.id, importacao);
+        executor.execute(() -> executar(importacao, temporario));
+        return importacao.progresso();
+    }
+
+    public Optional<Progresso> progresso(String id) {
+        return Optional.ofNullable(importacoes.getIfPresent(id)).map(Importacao::progresso);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private void executar(Importacao importacao, Path arquivo) {
+        importacao.estado = Estado.EM_EXECUCAO;
+        importacao.iniciadaEm = Instant.now();
+        log.info("Importação de clientes {} iniciada ({})", importacao.id, importacao.formato);
+
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            LeitorLinhas linhas = importacao.formato == Formato.CSV ? new LeitorCsv(leitor) : new LeitorNdjson(leitor);
+            List<Linha> lote = new ArrayList<>(tamanhoLote);
+            Linha linha;
+            while ((linha = linhas.proxima(importacao)) != null) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                lote.add(linha);
+                if (lote.size() >= tamanhoLote) {
+                    gravarLote(importacao, lote);
+                    lote.clear();
+                }
+            }
+            gravarLote(importacao, lote);
+            importacao.estado = Estado.CONCLUIDA;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            importacao.estado = Estado.FALHOU;
+            importacao.registrarErro(0, "Importação interrompida");
+        } catch (IOException | RuntimeException e) {
+            log.error("Importação de clientes {} interrompida", importacao.id, e);
+            importacao.estado = Estado.FALHOU;
+            importacao.registrarErro(importacao.linhasLidas.get(), e.getMessage());
+        } finally {
+            importacao.concluidaEm = Instant.now();
+            apagarSilenciosamente(arquivo);
+            log.info("Importação de clientes {} terminou como {}: {} inseridos, {} duplicados, {} inválidos, {} falhas",
+                    importacao.id, importacao.estado, importacao.inseridos.get(), importacao.duplicados.get(),
+                    importacao.invalidos.get(), importacao.falhas.get());
+        }
+    }
+
+    /**
+     * Valida e normaliza o lote, descarta o que já existe (no próprio lote ou na base) e grava o resto
+     */
+    private void gravarLote(Importacao importacao, List<Linha> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        List<Linha> validas = new ArrayList<>(lote.size());
+        for (Linha linha : lote) {
+            String motivo = validar(linha.cliente);
+            if (motivo != null) {
+                importacao.invalidos.incrementAndGet();
+                contadorInvalidos.increment();
+                importacao.registrarErro(linha.numero, motivo);
+            } else {
+                validas.add(linha);
+            }
+        }
+
+        Set<String> cpfs = validas.stream().map(linha -> linha.cliente.getCpf()).collect(Collectors.toSet());
+        Set<String> emails = validas.stream().map(linha -> linha.cliente.getEmail()).collect(Collectors.toSet());
+        Set<String> cpfsExistentes = new HashSet<>();
+        Set<String> emailsExistentes = new HashSet<>();
+        buscarExistentes(cpfs, emails, cpfsExistentes, emailsExistentes);
+
+        List<Linha> novas = new ArrayList<>(validas.size());
+        for (Linha linha : validas) {
+            ClienteModel cliente = linha.cliente;
+            // add() devolve false para CPF/e-mail repetidos dentro do próprio lote
+            if (cpfsExistentes.contains(cliente.getCpf()) || emailsExistentes.contains(cliente.getEmail())
+                    || !cpfsExistentes.add(cliente.getCpf()) || !emailsExistentes.add(cliente.getEmail())) {
+                importacao.duplicados.incrementAndGet();
+                contadorDuplicados.increment();
+            } else {
+                novas.add(linha);
+            }
+        }
+        if (novas.isEmpty()) {
+            return;
+        }
+
+        List<ClienteModel> clientes = novas.stream().map(linha -> linha.cliente).toList();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ClienteModel.class).insert(clientes).execute();
+            importacao.inseridos.addAndGet(clientes.size());
+            contadorInseridos.increment(clientes.size());
+        } catch (BulkOperationException e) {
+            // Corrida com outro cadastro: o índice único de CPF rejeita a linha e ela conta como duplicada
+            Map<Integer, Integer> codigos = new HashMap<>();
+            e.getErrors().forEach(erro -> codigos.put(erro.getIndex(), erro.getCode()));
+            for (int i = 0; i < novas.size(); i++) {
+                Integer codigo = codigos.get(i);
+                if (codigo == null) {
+                    importacao.inseridos.incrementAndGet();
+                    contadorInseridos.increment();
+                } else if (codigo == CODIGO_CHAVE_DUPLICADA) {
+                    importacao.duplicados.incrementAndGet();
+                    contadorDuplicados.increment();
+                } else {
+                    importacao.falhas.incrementAndGet();
+                    contadorFalhas.increment();
+                    importacao.registrarErro(novas.get(i).numero, "Erro ao gravar cliente (código " + codigo + ")");
+                }
+            }
+        }
+    }
+
+    /**
+     * CPFs antigos podem estar gravados com pontuação: a busca procura as duas formas. E-mails
+     * antigos podem ter maiúsculas: a busca usa a collation sem diferença de caixa do índice email_ci.
+     */
+    private void buscarExistentes(Set<String> cpfs, Set<String> emails, Set<String> cpfsExistentes,
+                                  Set<String> emailsExistentes) {
+        if (cpfs.isEmpty()) {
+            return;
+        }
+        List<String> formasCpf = new ArrayList<>(cpfs.size() * 2);
+        cpfs.forEach(cpf -> {
+            formasCpf.add(cpf);
+            formasCpf.add(formatarCpf(cpf));
+        });
+        Query porCpf = Query.query(Criteria.where("cpf").in(formasCpf));
+        porCpf.fields().include("cpf");
+        for (ClienteModel existente : mongoTemplate.find(porCpf, ClienteModel.class)) {
+            cpfsExistentes.add(normalizarCpf(existente.getCpf()));
+        }
+
+        // Consulta separada: com $or, a collation valeria também para o índice de CPF, que não a tem
+        Query porEmail = Query.query(Criteria.where("email").in(emails)).collation(IndicesMongo.SEM_DIFERENCA_DE_CAIXA);
+        porEmail.fields().include("email");
+        for (ClienteModel existente : mongoTemplate.find(porEmail, ClienteModel.class)) {
+            emailsExistentes.add(existente.getEmail().trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private String validar(ClienteModel cliente) {
+        Set<ConstraintViolation<ClienteModel>> violacoes = validator.validate(cliente);
+        if (!violacoes.isEmpty()) {
+            return violacoes.stream()
+                    .map(violacao -> violacao.getPropertyPath() + " " + violacao.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (cliente.getCpf().length() != 11) {
+            return "cpf deve ter 11 dígitos";
+        }
+        return null;
+    }
+
+    private static ClienteModel montarCliente(String nome, String email, String telefone, String cpf) {
+        return new ClienteModel(
+                nome == null ? null : nome.trim(),
+                telefone == null ? null : telefone.trim(),
+                email == null ? null : email.trim().toLowerCase(Locale.ROOT),
+                cpf == null ? null : normalizarCpf(cpf));
+    }
+
+    private static String normalizarCpf(String cpf) {
+        return cpf.replaceAll("[^\\d]", "");
+    }
+
+    private static String formatarCpf(String cpf) {
+        if (cpf.length() != 11) {
+            return cpf;
+        }
+        return cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6, 9) + "-" + cpf.substring(9);
+    }
+
+    private static Formato resolverFormato(String formato, String nomeArquivo) {
+        if (StringUtils.hasText(formato)) {
+            try {
+                return Formato.valueOf(formato.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Formato inválido: " + formato + " (use csv ou ndjson)");
+            }
+        }
+        String nome = nomeArquivo == null ? "" : nomeArquivo.toLowerCase(Locale.ROOT);
+        return nome.endsWith(".ndjson") || nome.endsWith(".jsonl") ? Formato.NDJSON : Formato.CSV;
+    }
+
+    private void apagarSilenciosamente(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o temporário da importação {}: {}", arquivo, e.getMessage());
+        }
+    }
+
+    private static Counter contador(MeterRegistry registry, String resultado) {
+        return Counter.builder("clientes.importacao")
+                .description("Linhas processadas pela importação de clientes")
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+
+    record Linha(long numero, ClienteModel cliente) {
+    }
+
+    interface LeitorLinhas {
+        /**
+         * Próximo cliente do arquivo, ou null no fim. Linhas ilegíveis são registradas e puladas.
+         */
+        Linha proxima(Importacao importacao) throws IOException;
+    }
+
+    /**
+     * CSV com cabeçalho (nome, email, telefone, cpf em qualquer ordem), separador vírgula ou
+     * ponto e vírgula e campos entre aspas duplas, que podem conter quebras de linha
+     */
+    static class LeitorCsv implements LeitorLinhas {
+
+        private final BufferedReader leitor;
+        private Map<String, Integer> colunas;
+        private char separador;
+        private long numero;
+        private long inicioRegistro;
+
+        LeitorCsv(BufferedReader leitor) {
+            this.leitor = leitor;
+        }
+
+        @Override
+        public Linha proxima(Importacao importacao) throws IOException {
+            String texto;
+            while ((texto = registro()) != null) {
+                if (texto.isBlank()) {
+                    continue;
+                }
+                if (colunas == null) {
+                    lerCabecalho(texto);
+                    continue;
+                }
+                importacao.linhasLidas.incrementAndGet();
+                List<String> campos = dividir(texto);
+                return new Linha(inicioRegistro, montarCliente(campo(campos, "nome"), campo(campos, "email"),
+                        campo(campos, "telefone"), campo(campos, "cpf")));
+            }
+            return null;
+        }
+
+        /**
+         * Próximo registro, juntando as linhas seguintes enquanto houver um campo entre aspas
+         * aberto (a quebra de linha faz parte do valor). Aspas escapadas ("") não mudam a paridade.
+         */
+        private String registro() throws IOException {
+            String texto = leitor.readLine();
+            if (texto == null) {
+                return null;
+            }
+            inicioRegistro = ++numero;
+            long aspas = contarAspas(texto);
+            if (aspas % 2 == 0) {
+                return texto;
+            }
+            StringBuilder registro = new StringBuilder(texto);
+            while (aspas % 2 != 0) {
+                String continuacao = leitor.readLine();
+                if (continuacao == null) {
+                    throw new IllegalArgumentException("Campo entre aspas sem fechamento a partir da linha " + inicioRegistro);
+                }
+                numero++;
+                registro.append('\n').append(continuacao);
+                aspas += contarAspas(continuacao);
+            }
+            return registro.toString();
+        }
+
+        private static long contarAspas(String texto) {
+            return texto.chars().filter(c -> c == '"').count();
+        }
+
+        private void lerCabecalho(String texto) {
+            if (texto.startsWith("\uFEFF")) {
+                texto = texto.substring(1);
+            }
+            separador = texto.indexOf(';') >= 0 && texto.indexOf(',') < 0 ? ';' : ',';
+            colunas = new HashMap<>();
+            List<String> nomes = dividir(texto);
+            for (int i = 0; i < nomes.size(); i++) {
+                colunas.put(nomes.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!colunas.keySet().containsAll(COLUNAS)) {
+                throw new IllegalArgumentException("Cabeçalho do CSV deve conter as colunas " + COLUNAS);
+            }
+        }
+
+        private String campo(List<String> campos, String coluna) {
+            int indice = colunas.get(coluna);
+            return indice < campos.size() ? campos.get(indice) : null;
+        }
+
+        private List<String> dividir(String texto) {
+            List<String> campos = new ArrayList<>();
+            StringBuilder atual = new StringBuilder();
+            boolean entreAspas = false;
+            for (int i = 0; i < texto.length(); i++) {
+                char c = texto.charAt(i);
+                if (c == '"') {
+                    if (entreAspas && i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                        atual.append('"');
+                        i++;
+                    } else {
+                        entreAspas = !entreAspas;
+                    }
+                } else if (c == separador && !entreAspas) {
+                    campos.add(atual.toString());
+                    atual.setLength(0);
+                } else {
+                    atual.append(c);
+                }
+            }
+            campos.add(atual.toString());
+            return campos;
+        }
+    }
+
+    /**
+     * Um objeto JSON por linha, com os mesmos campos do cadastro de cliente
+     */
+    private class LeitorNdjson implements LeitorLinhas {
+
+        private final BufferedReader leitor;
+        private long numero;
+
+        LeitorNdjson(BufferedReader leitor) {
+            this.leitor = leitor;
+        }
+
+        @Override
+        public Linha proxima(Importacao importacao) throws IOException {
+            String texto;
+            while ((texto = leitor.readLine()) != null) {
+                numero++;
+                if (texto.isBlank()) {
+                    continue;
+                }
+                importacao.linhasLidas.incrementAndGet();
+                try {
+                    JsonNode no = objectMapper.readTree(texto);
+                    return new Linha(numero, montarCliente(no.path("nome").asText(null), no.path("email").asText(null),
+                            no.path("telefone").asText(null), no.path("cpf").asText(null)));
+                } catch (IOException e) {
+                    importacao.invalidos.incrementAndGet();
+                    contadorInvalidos.increment();
+                    importacao.registrarErro(numero, "JSON inválido");
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Estado mutável de uma importação, lido pelo endpoint de progresso
+     */
+    static class Importacao {
+
+        private final String id;
+        private final Formato formato;
+        private final AtomicLong linhasLidas = new AtomicLong();
+        private final AtomicLong inseridos = new AtomicLong();
+        private final AtomicLong duplicados = new AtomicLong();
+        private final AtomicLong invalidos = new AtomicLong();
+        private final AtomicLong falhas = new AtomicLong();
+        // Lista pequena e limitada: cópia na escrita evita bloqueio (synchronized) na leitura do progresso
+        private final List<ErroLinha> erros = new CopyOnWriteArrayList<>();
+        private volatile Estado estado = Estado.AGUARDANDO;
+        private volatile Instant iniciadaEm;
+        private volatile Instant concluidaEm;
+
+        Importacao(String id, Formato formato) {
+            this.id = id;
+            this.formato = formato;
+        }
+
+        // Guarda só as primeiras ocorrências para o relatório não crescer com o arquivo
+        void registrarErro(long linha, String motivo) {
+            if (erros.size() < MAX_ERROS_REGISTRADOS) {
+                erros.add(new ErroLinha(linha, motivo));
+            }
+        }
+
+        Progresso progresso() {
+            return new Progresso(id, formato, estado, linhasLidas.get(), inseridos.get(), duplicados.get(),
+                    invalidos.get(), falhas.get(), List.copyOf(erros), iniciadaEm, concluidaEm);
+        }
+    }
+}
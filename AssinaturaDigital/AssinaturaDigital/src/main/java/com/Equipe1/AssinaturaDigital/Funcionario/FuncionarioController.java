@@ -25,6 +25,19 @@ public class FuncionarioController {
         return funcionarioService.listarTodos();
     }
 
+    @GetMapping("/pagina")
+    public ResponseEntity<?> listarPaginado(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(defaultValue = "asc") String ordem,
+            @RequestParam(required = false) String campos) {
+        try {
+            return ResponseEntity.ok(funcionarioService.listarPagina(cursor, tamanho, "desc".equalsIgnoreCase(ordem), campos));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<FuncionarioModel> buscarPorId(@PathVariable String id) {
         return funcionarioService.buscarPorId(id)
@@ -4,13 +4,27 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+
+import com.Equipe1.AssinaturaDigital.Infra.Paginacao.ConsultaPaginada;
+import com.Equipe1.AssinaturaDigital.Infra.Paginacao.Pagina;
+import com.Equipe1.AssinaturaDigital.Infra.Security.CacheAutenticacao;
 
 @Service
 public class FuncionarioService {
 
+    // A senha nunca entra na projeção da listagem
+    private static final Set<String> CAMPOS_LISTAGEM = Set.of("nome", "email");
+
     @Autowired
     private FuncionarioRepository funcionarioRepository;
 
+    @Autowired
+    private ConsultaPaginada consultaPaginada;
+
+    @Autowired
+    private CacheAutenticacao cacheAutenticacao;
+
     public FuncionarioModel criarFuncionario(FuncionarioModel funcionario) {
         return funcionarioRepository.save(funcionario);
     }
@@ -19,6 +33,11 @@ public class FuncionarioService {
         return funcionarioRepository.findAll();
     }
 
+    public Pagina<FuncionarioModel> listarPagina(String cursor, Integer tamanho, boolean decrescente, String campos) {
+        return consultaPaginada.buscar(FuncionarioModel.class, null, cursor, tamanho, decrescente,
+                ConsultaPaginada.resolverCampos(campos, CAMPOS_LISTAGEM, CAMPOS_LISTAGEM), FuncionarioModel::getId);
+    }
+
     public Optional<FuncionarioModel> buscarPorId(String id) {
         return funcionarioRepository.findById(id);
     }
@@ -26,15 +45,20 @@ public class FuncionarioService {
     public Optional<FuncionarioModel> atualizarFuncionario(String id, FuncionarioModel dadosAtualizados) {
         return funcionarioRepository.findById(id)
             .map(funcionario -> {
+                String emailAnterior = funcionario.getEmail();
                 funcionario.setNome(dadosAtualizados.getNome());
                 funcionario.setEmail(dadosAtualizados.getEmail());
-                return funcionarioRepository.save(funcionario);
+                FuncionarioModel salvo = funcionarioRepository.save(funcionario);
+                // Tokens em cache ainda carregam os dados antigos
+                cacheAutenticacao.invalidarFuncionario(salvo.getId(), emailAnterior);
+                return salvo;
             });
     }
 
     public boolean deletarFuncionario(String id) {
         if (funcionarioRepository.existsById(id)) {
             funcionarioRepository.deleteById(id);
+            cacheAutenticacao.invalidarFuncionario(id, null);
             return true;
         }
         return false;
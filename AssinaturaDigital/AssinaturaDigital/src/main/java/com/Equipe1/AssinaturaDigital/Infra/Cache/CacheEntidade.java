@@ -0,0 +1,79 @@
+package com.Equipe1.AssinaturaDigital.Infra.Cache;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Cache de leitura de uma entidade por chave (id ou título). Só entidades encontradas são
+ * guardadas, então uma criação nunca fica escondida atrás de um "não existe" em cache.
+ *
+ * A carga roda fora do cache (sem travar a chave durante a consulta ao Mongo); uma contagem
+ * de invalidações impede que uma leitura iniciada antes de uma escrita grave o valor antigo.
+ */
+public final class CacheEntidade<V> {
+
+    private final String nome;
+    private final Cache<String, V> cache;
+    private final CanalInvalidacao canal;
+    private final AtomicLong invalidacoes = new AtomicLong();
+
+    CacheEntidade(String nome, Cache<String, V> cache, CanalInvalidacao canal) {
+        this.nome = nome;
+        this.cache = cache;
+        this.canal = canal;
+    }
+
+    public Optional<V> buscar(String chave, Function<String, Optional<V>> carregar) {
+        if (chave == null) {
+            return Optional.empty();
+        }
+        Optional<V> emCache = emCache(chave);
+        if (emCache.isPresent()) {
+            return emCache;
+        }
+        long geracao = geracao();
+        Optional<V> carregado = carregar.apply(chave);
+        carregado.ifPresent(valor -> guardar(chave, valor, geracao));
+        return carregado;
+    }
+
+    /**
+     * Só a memória, sem carregar (leitores que consultam o banco por conta própria)
+     */
+    public Optional<V> emCache(String chave) {
+        return Optional.ofNullable(cache.getIfPresent(chave));
+    }
+
+    /**
+     * Marca lida antes de uma carga feita fora do {@link #buscar}, para usar em {@link #guardar}
+     */
+    public long geracao() {
+        return invalidacoes.get();
+    }
+
+    /**
+     * Guarda um valor carregado; se houve invalidação desde a leitura da geração, ele é descartado
+     */
+    public void guardar(String chave, V valor, long geracao) {
+        cache.put(chave, valor);
+        if (invalidacoes.get() != geracao) {
+            cache.invalidate(chave);
+        }
+    }
+
+    /**
+     * Descarta a chave neste nó e avisa os demais (criação, alteração ou remoção)
+     */
+    public void invalidar(String chave) {
+        descartar(chave);
+        canal.publicar(nome, chave);
+    }
+
+    void descartar(String chave) {
+        invalidacoes.incrementAndGet();
+        cache.invalidate(chave);
+    }
+}
@@ -0,0 +1,62 @@
+package com.Equipe1.AssinaturaDigital.Infra.Cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caches em memória das entidades que mudam pouco (termos, clientes, cenários), todos com o
+ * mesmo limite de tamanho e TTL (app.cache.entidades.*). Acertos e faltas em
+ * cache.gets{cache=...}; invalidações vindas de outros nós chegam pelo {@link CanalInvalidacao}.
+ */
+@Component
+public class CacheEntidades {
+
+    private final long tamanhoMaximo;
+    private final Duration ttl;
+    private final MeterRegistry registry;
+    private final CanalInvalidacao canal;
+    private final Map<String, CacheEntidade<?>> caches = new ConcurrentHashMap<>();
+
+    public CacheEntidades(@Value("${app.cache.entidades.tamanho-maximo:10000}") long tamanhoMaximo,
+                          @Value("${app.cache.entidades.ttl:PT10M}") Duration ttl,
+                          MeterRegistry registry, CanalInvalidacao canal) {
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.ttl = ttl;
+        this.registry = registry;
+        this.canal = canal;
+        canal.assinar(this::descartar);
+    }
+
+    public <V> CacheEntidade<V> criar(String nome) {
+        Cache<String, V> cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, nome);
+
+        CacheEntidade<V> entidade = new CacheEntidade<>(nome, cache, canal);
+        if (caches.putIfAbsent(nome, entidade) != null) {
+            throw new IllegalStateException("Cache já registrado: " + nome);
+        }
+        return entidade;
+    }
+
+    // Invalidação publicada por outro nó: só descarta aqui, sem publicar de novo
+    private void descartar(String nome, String chave) {
+        CacheEntidade<?> entidade = caches.get(nome);
+        if (entidade != null) {
+            entidade.descartar(chave);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.Equipe1.AssinaturaDigital.Infra.Cache;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Propagação das invalidações de cache entre nós. A implementação local não propaga nada
+ * (cada nó depende só do TTL para ver escritas feitas nos outros); com
+ * app.cache.invalidacao.backend=mongo as invalidações chegam aos demais nós em segundos.
+ */
+public interface CanalInvalidacao {
+
+    /**
+     * Avisa os outros nós que a chave do cache mudou
+     */
+    void publicar(String cache, String chave);
+
+    /**
+     * Registra quem aplica, neste nó, as invalidações publicadas pelos outros
+     */
+    void assinar(BiConsumer<String, String> ouvinte);
+}
@@ -0,0 +1,22 @@
+package com.Equipe1.AssinaturaDigital.Infra.Cache;
+
+import java.util.function.BiConsumer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nó único: a invalidação local já basta e não há para quem publicar
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidacao.backend", havingValue = "local", matchIfMissing = true)
+public class CanalInvalidacaoLocal implements CanalInvalidacao {
+
+    @Override
+    public void publicar(String cache, String chave) {
+    }
+
+    @Override
+    public void assinar(BiConsumer<String, String> ouvinte) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.Equipe1.AssinaturaDigital.Infra.Cache;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.Equipe1.AssinaturaDigital.Infra.Concorrencia.FabricaThreads;
+import com.mongodb.CursorType;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Invalidações entre nós pela coleção limitada (capped) invalidacoes_cache: cada escrita
+ * grava um aviso e cada nó acompanha a coleção com um cursor tailable, descartando as chaves
+ * avisadas pelos outros. Funciona sem replica set (ao contrário de change streams).
+ *
+ * Cada aviso leva em "ts" um timestamp BSON atribuído pelo próprio servidor na inserção
+ * (crescente no mongod, independente do relógio dos nós). O cursor segue a ordem natural
+ * da coleção; se ele cair, o nó retoma pelo último ts lido e, até lá, vale o TTL do cache.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidacao.backend", havingValue = "mongo")
+public class CanalInvalidacaoMongo implements CanalInvalidacao {
+
+    public static final String COLECAO = "invalidacoes_cache";
+
+    private static final Logger log = LoggerFactory.getLogger(CanalInvalidacaoMongo.class);
+    private static final long TAMANHO_COLECAO = 1024 * 1024;
+    private static final long PAUSA_RECONEXAO_MS = 5_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ExecutorService executor;
+    private final String origem = UUID.randomUUID().toString();
+    private final List<BiConsumer<String, String>> ouvintes = new CopyOnWriteArrayList<>();
+    private volatile boolean colecaoPronta;
+    private volatile long ultimoAviso;
+
+    public CanalInvalidacaoMongo(MongoTemplate mongoTemplate, FabricaThreads fabricaThreads) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = fabricaThreads.unicaThread("invalidacao-cache");
+    }
+
+    @Override
+    public void publicar(String cache, String chave) {
+        try {
+            garantirColecao();
+            // Timestamp vazio logo após o _id: o servidor o substitui pelo seu instante atual
+            mongoTemplate.getCollection(COLECAO).insertOne(new Document("_id", new ObjectId())
+                    .append("ts", new BsonTimestamp())
+                    .append("cache", cache)
+                    .append("chave", chave)
+                    .append("origem", origem));
+        } catch (MongoException | DataAccessException e) {
+            avisar(e);
+        }
+    }
+
+    @Override
+    public void assinar(BiConsumer<String, String> ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoSubir() {
+        executor.execute(this::acompanhar);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    // Na primeira abertura os avisos antigos também são lidos: com o cache recém-criado eles não
+    // descartam nada. O _id (ObjectId gerado pelo driver de cada nó) nunca é usado como posição.
+    private void acompanhar() {
+        BsonTimestamp ultimo = null;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                garantirColecao();
+                try (MongoCursor<Document> cursor = mongoTemplate.getCollection(COLECAO)
+                        .find(filtro(ultimo))
+                        .cursorType(CursorType.TailableAwait)
+                        .maxAwaitTime(1, TimeUnit.SECONDS)
+                        .iterator()) {
+                    while (!Thread.currentThread().isInterrupted() && cursor.getServerCursor() != null) {
+                        Document aviso = cursor.tryNext();
+                        if (aviso != null) {
+                            if (aviso.get("ts") instanceof BsonTimestamp ts) {
+                                ultimo = ts;
+                            }
+                            ouvintes.forEach(ouvinte -> ouvinte.accept(aviso.getString("cache"), aviso.getString("chave")));
+                        }
+                    }
+                }
+                // Cursor encerrado pelo servidor (coleção vazia ou sobrescrita): reabre depois de uma pausa
+                pausar();
+            } catch (MongoException | DataAccessException e) {
+                avisar(e);
+                pausar();
+            }
+        }
+    }
+
+    private Bson filtro(BsonTimestamp ultimo) {
+        Bson deOutrosNos = Filters.ne("origem", origem);
+        return ultimo == null ? deOutrosNos : Filters.and(Filters.gt("ts", ultimo), deOutrosNos);
+    }
+
+    private void garantirColecao() {
+        if (colecaoPronta) {
+            return;
+        }
+        if (!mongoTemplate.collectionExists(COLECAO)) {
+            try {
+                mongoTemplate.createCollection(COLECAO, CollectionOptions.empty().capped().size(TAMANHO_COLECAO));
+            } catch (DataAccessException e) {
+                // Outro nó pode ter criado a coleção ao mesmo tempo
+                if (!mongoTemplate.collectionExists(COLECAO)) {
+                    throw e;
+                }
+            }
+        }
+        colecaoPronta = true;
+    }
+
+    private void pausar() {
+        try {
+            Thread.sleep(PAUSA_RECONEXAO_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Um aviso por minuto no máximo: com o Mongo fora, toda escrita passaria por aqui
+    private void avisar(RuntimeException e) {
+        long agora = System.currentTimeMillis();
+        if (agora - ultimoAviso > 60_000) {
+            ultimoAviso = agora;
+            log.warn("Invalidação de cache entre nós indisponível: {}", e.getMessage());
+        }
+    }
+}
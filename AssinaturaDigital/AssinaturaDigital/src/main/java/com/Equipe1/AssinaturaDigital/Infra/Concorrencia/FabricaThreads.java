@@ -0,0 +1,42 @@
+package com.Equipe1.AssinaturaDigital.Infra.Concorrencia;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Threads dos jobs em segundo plano (migração, importação, índices, contadores). No modo de
+ * threads virtuais (spring.threads.virtual.enabled=true) elas também são virtuais, como as de
+ * requisição e de agendamento; caso contrário são threads de plataforma daemon.
+ * Trabalho de CPU (ex.: normalização de selfies) continua em pool de plataforma dimensionado pelos núcleos.
+ */
+@Component
+public class FabricaThreads {
+
+    private final boolean virtuais;
+
+    public FabricaThreads(@Value("${spring.threads.virtual.enabled:false}") boolean virtuais) {
+        this.virtuais = virtuais;
+    }
+
+    public boolean virtuais() {
+        return virtuais;
+    }
+
+    /**
+     * Executor de uma thread só: as tarefas de um mesmo job rodam em série
+     */
+    public ExecutorService unicaThread(String nome) {
+        return Executors.newSingleThreadExecutor(fabrica(nome));
+    }
+
+    public ThreadFactory fabrica(String nome) {
+        if (virtuais) {
+            return Thread.ofVirtual().name(nome).factory();
+        }
+        return Thread.ofPlatform().name(nome).daemon(true).factory();
+    }
+}
@@ -0,0 +1,351 @@
+package com.Equipe1.AssinaturaDigital.Infra.Idempotencia;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.Part;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Suporte ao cabeçalho Idempotency-Key nos POSTs que criam ou confirmam assinaturas.
+ * O primeiro envio de uma chave é processado normalmente e a resposta é guardada; reenvios
+ * recebem a mesma resposta (com Idempotent-Replayed: true) sem refazer upload nem gravação.
+ * Um reenvio enquanto o primeiro ainda está em processamento recebe 409, e a mesma chave
+ * com outra requisição (outro corpo) recebe 422. Respostas 5xx não são guardadas: o cliente pode tentar de novo.
+ *
+ * Roda depois da cadeia do Spring Security, então só requisições autorizadas reservam chaves.
+ */
+@Component
+@Order(0)
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "Idempotency-Key";
+    public static final String CABECALHO_REPETIDA = "Idempotent-Replayed";
+
+    private static final Pattern CHAVE_VALIDA = Pattern.compile("[A-Za-z0-9._:-]{1,128}");
+    private static final List<String> ROTAS = List.of("/Assinaturas", "/Assinaturas/lote", "/Assinaturas/*/confirmar");
+    private static final String ATRIBUTO_RESERVA = IdempotenciaFilter.class.getName() + ".reserva";
+
+    private final IdempotenciaService idempotenciaService;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final int tamanhoMaximoResposta;
+    private final long tamanhoMaximoCorpo;
+
+    public IdempotenciaFilter(IdempotenciaService idempotenciaService,
+                              @Value("${app.idempotencia.tamanho-maximo-resposta:1048576}") int tamanhoMaximoResposta,
+                              @Value("${app.idempotencia.tamanho-maximo-corpo:15MB}") DataSize tamanhoMaximoCorpo) {
+        this.idempotenciaService = idempotenciaService;
+        this.tamanhoMaximoResposta = tamanhoMaximoResposta;
+        this.tamanhoMaximoCorpo = tamanhoMaximoCorpo.toBytes();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod()) || request.getHeader(CABECALHO) == null) {
+            return true;
+        }
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        return ROTAS.stream().noneMatch(rota -> matcher.match(rota, caminho));
+    }
+
+    // Handlers assíncronos (perfil reativo) só têm a resposta final no despacho assíncrono
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            finalizarAssincrono(request, response, filterChain);
+            return;
+        }
+
+        String chave = request.getHeader(CABECALHO);
+        if (!CHAVE_VALIDA.matcher(chave).matches()) {
+            responder(response, HttpStatus.BAD_REQUEST, "Idempotency-Key inválida");
+            return;
+        }
+
+        String id = escopo() + ":" + chave;
+        HttpServletRequest requisicao;
+        String impressao;
+        try {
+            requisicao = comCorpoReutilizavel(request);
+            impressao = impressao(requisicao);
+        } catch (CorpoGrandeDemaisException e) {
+            responder(response, HttpStatus.PAYLOAD_TOO_LARGE, "Corpo da requisição acima do limite");
+            return;
+        } catch (IllegalStateException e) {
+            // Multipart acima do limite ou malformado: o Spring MVC responde com o erro de sempre
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        switch (idempotenciaService.reservar(id, impressao)) {
+            case IdempotenciaService.Reserva.EmAndamento emAndamento -> {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                responder(response, HttpStatus.CONFLICT, "Requisição com esta Idempotency-Key ainda em processamento");
+            }
+            case IdempotenciaService.Reserva.OutraRequisicao outra ->
+                responder(response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key já usada com outra requisição");
+            case IdempotenciaService.Reserva.Concluida concluida -> repetir(concluida.registro(), response);
+            case IdempotenciaService.Reserva.Reservada reservada -> processar(id, requisicao, response, filterChain);
+        }
+    }
+
+    private void processar(String id, HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper resposta = new ContentCachingResponseWrapper(response);
+        boolean processada = false;
+        boolean assincrona = false;
+        try {
+            filterChain.doFilter(request, resposta);
+            processada = true;
+            assincrona = isAsyncStarted(request);
+        } finally {
+            if (assincrona) {
+                // A reserva fica aberta até o despacho assíncrono, que escreve na mesma resposta em cache
+                request.setAttribute(ATRIBUTO_RESERVA, id);
+            } else {
+                encerrar(id, resposta, processada);
+            }
+        }
+    }
+
+    private void finalizarAssincrono(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String id = (String) request.getAttribute(ATRIBUTO_RESERVA);
+        ContentCachingResponseWrapper resposta = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (id == null || resposta == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean processada = false;
+        try {
+            filterChain.doFilter(request, response);
+            processada = true;
+        } finally {
+            encerrar(id, resposta, processada);
+        }
+    }
+
+    private void encerrar(String id, ContentCachingResponseWrapper resposta, boolean processada) throws IOException {
+        boolean concluida = false;
+        try {
+            int status = resposta.getStatus();
+            if (processada && status < 500 && resposta.getContentSize() <= tamanhoMaximoResposta) {
+                idempotenciaService.concluir(id, status, resposta.getContentType(), resposta.getContentAsByteArray());
+                concluida = true;
+            }
+        } finally {
+            if (!concluida) {
+                idempotenciaService.liberar(id);
+            }
+            resposta.copyBodyToResponse();
+        }
+    }
+
+    private void repetir(RegistroIdempotencia registro, HttpServletResponse response) throws IOException {
+        response.setStatus(registro.getStatus());
+        response.setHeader(CABECALHO_REPETIDA, "true");
+        if (registro.getContentType() != null) {
+            response.setContentType(registro.getContentType());
+        }
+        byte[] corpo = registro.getCorpo();
+        if (corpo != null) {
+            response.setContentLength(corpo.length);
+            response.getOutputStream().write(corpo);
+        }
+    }
+
+    // Escreve a resposta direto (sem sendError), para não passar pelo despacho de /error
+    private void responder(HttpServletResponse response, HttpStatus status, String mensagem) throws IOException {
+        byte[] corpo = mensagem.getBytes(StandardCharsets.UTF_8);
+        response.setStatus(status.value());
+        response.setContentType("text/plain;charset=UTF-8");
+        response.setContentLength(corpo.length);
+        response.getOutputStream().write(corpo);
+    }
+
+    // Chaves de funcionários diferentes nunca colidem; rotas públicas compartilham o escopo
+    private String escopo() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacao != null && autenticacao.isAuthenticated() && autenticacao.getName() != null
+                ? autenticacao.getName() : "publico";
+    }
+
+    // Multipart é lido pelo container (partes em disco, relidas à vontade); os demais corpos são
+    // lidos uma vez para a impressão, até tamanho-maximo-corpo, e reentregues ao controller da memória
+    private HttpServletRequest comCorpoReutilizavel(HttpServletRequest request) throws IOException {
+        if (multipart(request)) {
+            return request;
+        }
+        if (request.getContentLengthLong() > tamanhoMaximoCorpo) {
+            throw new CorpoGrandeDemaisException();
+        }
+        // Sem Content-Length (chunked) o limite vale para o que for lido: um byte além já recusa
+        byte[] bytes = request.getInputStream().readNBytes((int) Math.min(Integer.MAX_VALUE - 8, tamanhoMaximoCorpo + 1));
+        if (bytes.length > tamanhoMaximoCorpo) {
+            throw new CorpoGrandeDemaisException();
+        }
+        return new CorpoEmMemoria(request, bytes);
+    }
+
+    /**
+     * Impressão da requisição: método, URI, tipo de mídia sem parâmetros (o boundary do multipart
+     * muda a cada envio) e o SHA-256 do corpo, ou de cada parte no caso de multipart
+     */
+    private String impressao(HttpServletRequest request) throws IOException, ServletException {
+        MessageDigest digest = sha256();
+        atualizar(digest, request.getMethod() + " " + request.getRequestURI() + "?" + request.getQueryString());
+        atualizar(digest, tipoSemParametros(request.getContentType()));
+
+        if (request instanceof CorpoEmMemoria corpo) {
+            digest.update(corpo.bytes);
+        } else {
+            for (Part parte : request.getParts()) {
+                atualizar(digest, parte.getName() + "|" + parte.getSubmittedFileName()
+                        + "|" + tipoSemParametros(parte.getContentType()));
+                try (InputStream conteudo = parte.getInputStream()) {
+                    byte[] buffer = new byte[8192];
+                    int lidos;
+                    while ((lidos = conteudo.read(buffer)) != -1) {
+                        digest.update(buffer, 0, lidos);
+                    }
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static boolean multipart(HttpServletRequest request) {
+        String tipo = request.getContentType();
+        return tipo != null && tipo.toLowerCase(Locale.ROOT).startsWith("multipart/");
+    }
+
+    private static String tipoSemParametros(String tipo) {
+        if (tipo == null) {
+            return "";
+        }
+        int parametros = tipo.indexOf(';');
+        return (parametros < 0 ? tipo : tipo.substring(0, parametros)).trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Separador entre os campos, para "ab"+"c" não coincidir com "a"+"bc"
+    private static void atualizar(MessageDigest digest, String valor) {
+        digest.update(valor.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+
+    /**
+     * Requisição cujo corpo já foi lido: o controller recebe os mesmos bytes
+     */
+    private static final class CorpoEmMemoria extends HttpServletRequestWrapper {
+
+        private final byte[] bytes;
+
+        CorpoEmMemoria(HttpServletRequest request, byte[] bytes) {
+            super(request);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(bytes);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] destino, int deslocamento, int tamanho) {
+                    return entrada.read(destino, deslocamento, tamanho);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Tudo já está em memória: há dados disponíveis de imediato e a leitura termina na sequência
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String charset = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(charset)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return bytes.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return bytes.length;
+        }
+    }
+
+    private static final class CorpoGrandeDemaisException extends IOException {
+    }
+}
@@ -0,0 +1,116 @@
+package com.Equipe1.AssinaturaDigital.Infra.Idempotencia;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reserva e conclusão de chaves de idempotência na coleção idempotencia
+ */
+@Service
+public class IdempotenciaService {
+
+    /**
+     * Resultado da tentativa de reservar a chave
+     */
+    public sealed interface Reserva {
+        record Reservada() implements Reserva { }
+        record EmAndamento() implements Reserva { }
+        record OutraRequisicao() implements Reserva { }
+        record Concluida(RegistroIdempotencia registro) implements Reserva { }
+    }
+
+    private static final int TENTATIVAS_RESERVA = 3;
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration validade;
+    private final Duration tempoMaximoProcessamento;
+
+    public IdempotenciaService(MongoTemplate mongoTemplate,
+                               @Value("${app.idempotencia.validade:PT24H}") Duration validade,
+                               @Value("${app.idempotencia.tempo-maximo-processamento:PT5M}") Duration tempoMaximoProcessamento) {
+        this.mongoTemplate = mongoTemplate;
+        this.validade = validade;
+        this.tempoMaximoProcessamento = tempoMaximoProcessamento;
+    }
+
+    /**
+     * Tenta registrar a chave como EM_ANDAMENTO. Se já existir, informa se a requisição original
+     * ainda está rodando, se terminou (com a resposta) ou se a chave foi usada com outra requisição.
+     */
+    public Reserva reservar(String id, String impressao) {
+        for (int tentativa = 0; tentativa < TENTATIVAS_RESERVA; tentativa++) {
+            Optional<Reserva> reserva = tentarReservar(id, impressao);
+            if (reserva.isPresent()) {
+                return reserva.get();
+            }
+        }
+        // O registro segue sumindo entre a inserção e a leitura: o cliente tenta de novo em instantes
+        return new Reserva.EmAndamento();
+    }
+
+    // Vazio quando o registro expirou entre a inserção recusada e a leitura
+    private Optional<Reserva> tentarReservar(String id, String impressao) {
+        Instant agora = Instant.now();
+        try {
+            mongoTemplate.insert(new RegistroIdempotencia(id, impressao, agora, agora.plus(validade)));
+            return Optional.of(new Reserva.Reservada());
+        } catch (DuplicateKeyException e) {
+            // segue para o registro existente
+        }
+
+        // Um processamento abandonado (servidor caiu no meio) pode ser assumido por esta requisição
+        RegistroIdempotencia assumido = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id)
+                        .and("impressao").is(impressao)
+                        .and("estado").is(RegistroIdempotencia.Estado.EM_ANDAMENTO)
+                        .and("criadoEm").lt(agora.minus(tempoMaximoProcessamento))),
+                new Update().set("criadoEm", agora).set("expiraEm", agora.plus(validade)),
+                FindAndModifyOptions.options().returnNew(true),
+                RegistroIdempotencia.class);
+        if (assumido != null) {
+            return Optional.of(new Reserva.Reservada());
+        }
+
+        Optional<RegistroIdempotencia> existente = Optional.ofNullable(mongoTemplate.findById(id, RegistroIdempotencia.class));
+        if (existente.isEmpty()) {
+            return Optional.empty();
+        }
+        RegistroIdempotencia registro = existente.get();
+        if (!impressao.equals(registro.getImpressao())) {
+            return Optional.of(new Reserva.OutraRequisicao());
+        }
+        if (registro.getEstado() == RegistroIdempotencia.Estado.EM_ANDAMENTO) {
+            return Optional.of(new Reserva.EmAndamento());
+        }
+        return Optional.of(new Reserva.Concluida(registro));
+    }
+
+    public void concluir(String id, int status, String contentType, byte[] corpo) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(id)),
+                new Update()
+                        .set("estado", RegistroIdempotencia.Estado.CONCLUIDA)
+                        .set("status", status)
+                        .set("contentType", contentType)
+                        .set("corpo", corpo),
+                RegistroIdempotencia.class);
+    }
+
+    /**
+     * Libera a chave para que um novo envio seja processado (erro do servidor, por exemplo)
+     */
+    public void liberar(String id) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(id)
+                .and("estado").is(RegistroIdempotencia.Estado.EM_ANDAMENTO)), RegistroIdempotencia.class);
+    }
+}
@@ -0,0 +1,104 @@
+package com.Equipe1.AssinaturaDigital.Infra.Idempotencia;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Requisição registrada sob um Idempotency-Key. Enquanto EM_ANDAMENTO bloqueia duplicatas;
+ * depois de CONCLUIDA guarda a resposta para ser repetida. O índice TTL em expiraEm
+ * remove o registro sozinho.
+ */
+@Document(collection = "idempotencia")
+public class RegistroIdempotencia {
+
+    public enum Estado {
+        EM_ANDAMENTO,
+        CONCLUIDA
+    }
+
+    @Id
+    private String id;
+    private String impressao;
+    private Estado estado = Estado.EM_ANDAMENTO;
+    private int status;
+    private String contentType;
+    private byte[] corpo;
+    private Instant criadoEm;
+    private Instant expiraEm;
+
+    public RegistroIdempotencia() {
+    }
+
+    public RegistroIdempotencia(String id, String impressao, Instant criadoEm, Instant expiraEm) {
+        this.id = id;
+        this.impressao = impressao;
+        this.criadoEm = criadoEm;
+        this.expiraEm = expiraEm;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getImpressao() {
+        return impressao;
+    }
+
+    public void setImpressao(String impressao) {
+        this.impressao = impressao;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public void setEstado(Estado estado) {
+        this.estado = estado;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public byte[] getCorpo() {
+        return corpo;
+    }
+
+    public void setCorpo(byte[] corpo) {
+        this.corpo = corpo;
+    }
+
+    public Instant getCriadoEm() {
+        return criadoEm;
+    }
+
+    public void setCriadoEm(Instant criadoEm) {
+        this.criadoEm = criadoEm;
+    }
+
+    public Instant getExpiraEm() {
+        return expiraEm;
+    }
+
+    public void setExpiraEm(Instant expiraEm) {
+        this.expiraEm = expiraEm;
+    }
+}
@@ -0,0 +1,32 @@
+package com.Equipe1.AssinaturaDigital.Infra.Indices;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/indices: GET mostra índices ausentes, não utilizados e não declarados;
+ * POST cria de novo os índices que faltam
+ */
+@Component
+@Endpoint(id = "indices")
+public class IndicesEndpoint {
+
+    private final IndicesMongo indicesMongo;
+
+    public IndicesEndpoint(IndicesMongo indicesMongo) {
+        this.indicesMongo = indicesMongo;
+    }
+
+    @ReadOperation
+    public IndicesMongo.Relatorio relatorio() {
+        return indicesMongo.verificar();
+    }
+
+    @WriteOperation
+    public IndicesMongo.Relatorio recriar() {
+        indicesMongo.garantirIndices();
+        return indicesMongo.verificar();
+    }
+}
@@ -0,0 +1,207 @@
+package com.Equipe1.AssinaturaDigital.Infra.Indices;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.stereotype.Component;
+
+import com.Equipe1.AssinaturaDigital.Infra.Concorrencia.FabricaThreads;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Conjunto de índices declarado para as coleções do sistema. Na subida da aplicação os índices
+ * ausentes são criados em segundo plano (sem atrasar o startup nem derrubá-lo se o Mongo
+ * estiver fora) e o resultado fica disponível em /actuator/indices.
+ */
+@Component
+public class IndicesMongo {
+
+    private static final Logger log = LoggerFactory.getLogger(IndicesMongo.class);
+    private static final String INDICE_ID = "_id_";
+
+    /**
+     * Índice esperado em uma coleção
+     */
+    public record IndiceDeclarado(String colecao, Index definicao) {
+
+        public String nome() {
+            return (String) definicao.getIndexOptions().get("name");
+        }
+    }
+
+    /**
+     * Situação dos índices de uma coleção: o que falta, o que não é usado e o que não foi declarado
+     */
+    public record SituacaoColecao(String colecao, List<String> presentes, List<String> ausentes,
+                                  List<String> naoUtilizados, List<String> naoDeclarados, Map<String, String> falhas) {
+    }
+
+    public record Relatorio(Instant verificadoEm, List<SituacaoColecao> colecoes) {
+    }
+
+    /**
+     * Collation das consultas que comparam texto sem diferença de caixa (e-mail de clientes)
+     */
+    public static final Collation SEM_DIFERENCA_DE_CAIXA = Collation.of("pt").strength(Collation.ComparisonLevel.secondary());
+
+    // Consultas quentes: findByStatus/listagens, filtros por cliente e cenário, login (email) e títulos
+    private static final List<IndiceDeclarado> DECLARADOS = List.of(
+            // Listagem paginada por data (?ordenarPor=dataAssinatura), com ou sem filtro de status: o
+            // _id no fim desempata o cursor sem ordenação em memória. O antigo status_dataAssinatura
+            // é prefixo do primeiro e aparece como não declarado no relatório
+            new IndiceDeclarado("assinaturas", new Index()
+                    .on("status", Sort.Direction.ASC).on("dataAssinatura", Sort.Direction.DESC).on("_id", Sort.Direction.DESC)
+                    .named("status_dataAssinatura_id")),
+            new IndiceDeclarado("assinaturas", new Index()
+                    .on("dataAssinatura", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                    .named("dataAssinatura_id")),
+            new IndiceDeclarado("assinaturas", new Index()
+                    .on("clienteId", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                    .named("clienteId")),
+            // Paginação por chave (_id > último) e exportações filtradas por status ou cenário; o
+            // antigo {cenarioId:1} vira prefixo deste e aparece como não declarado no relatório
+            new IndiceDeclarado("assinaturas", new Index()
+                    .on("status", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                    .named("status_id")),
+            new IndiceDeclarado("assinaturas", new Index()
+                    .on("cenarioId", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                    .named("cenarioId_id")),
+            // Varredura de links vencidos: status em aberto com expiraEm no passado
+            new IndiceDeclarado("assinaturas", new Index()
+                    .on("status", Sort.Direction.ASC).on("expiraEm", Sort.Direction.ASC)
+                    .named("status_expiraEm")),
+            new IndiceDeclarado("funcionarios_db", new Index()
+                    .on("email", Sort.Direction.ASC)
+                    .named("email_unico").unique()),
+            // Deduplicação da importação por e-mail sem diferença de caixa (mesma collation na consulta)
+            new IndiceDeclarado("clientes", new Index()
+                    .on("email", Sort.Direction.ASC)
+                    .named("email_ci").collation(SEM_DIFERENCA_DE_CAIXA)),
+            new IndiceDeclarado("clientes", new Index()
+                    .on("cpf", Sort.Direction.ASC)
+                    .named("cpf_unico").unique().sparse()),
+            new IndiceDeclarado("termos", new Index()
+                    .on("titulo", Sort.Direction.ASC)
+                    .named("titulo_unico").unique()),
+            new IndiceDeclarado("cenarios", new Index()
+                    .on("titulo", Sort.Direction.ASC)
+                    .named("titulo")),
+            // TTL: o Mongo apaga o registro de idempotência quando expiraEm passa
+            new IndiceDeclarado("idempotencia", new Index()
+                    .on("expiraEm", Sort.Direction.ASC)
+                    .named("expiraEm_ttl").expire(Duration.ZERO)),
+            // Estado do limite de requisições compartilhado (app.limite.backend=mongo)
+            new IndiceDeclarado("limites_requisicao", new Index()
+                    .on("expiraEm", Sort.Direction.ASC)
+                    .named("expiraEm_ttl").expire(Duration.ZERO)));
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean criarNaSubida;
+    private final Map<String, String> falhas = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    public IndicesMongo(MongoTemplate mongoTemplate, FabricaThreads fabricaThreads,
+                        @Value("${app.mongo.indices.criar-na-subida:true}") boolean criarNaSubida) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = fabricaThreads.unicaThread("indices-mongo");
+        this.criarNaSubida = criarNaSubida;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoSubir() {
+        if (criarNaSubida) {
+            executor.execute(this::garantirIndices);
+        }
+    }
+
+    /**
+     * Cria os índices declarados que ainda não existem. Falhas (por exemplo, duplicatas
+     * impedindo um índice único) são registradas e não interrompem os demais.
+     */
+    public void garantirIndices() {
+        for (IndiceDeclarado indice : DECLARADOS) {
+            String chave = indice.colecao() + "." + indice.nome();
+            try {
+                mongoTemplate.indexOps(indice.colecao()).ensureIndex(indice.definicao());
+                falhas.remove(chave);
+            } catch (RuntimeException e) {
+                falhas.put(chave, e.getMessage());
+                log.warn("Não foi possível criar o índice {}: {}", chave, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Compara os índices existentes com os declarados e usa $indexStats para apontar
+     * índices que não receberam nenhum acesso desde a última reinicialização do Mongo
+     */
+    public Relatorio verificar() {
+        Map<String, List<IndiceDeclarado>> porColecao = DECLARADOS.stream()
+                .collect(Collectors.groupingBy(IndiceDeclarado::colecao, LinkedHashMap::new, Collectors.toList()));
+
+        List<SituacaoColecao> colecoes = new ArrayList<>();
+        porColecao.forEach((colecao, declarados) -> {
+            Set<String> existentes = mongoTemplate.indexOps(colecao).getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+            Set<String> nomesDeclarados = declarados.stream().map(IndiceDeclarado::nome).collect(Collectors.toSet());
+
+            List<String> presentes = nomesDeclarados.stream().filter(existentes::contains).sorted().toList();
+            List<String> ausentes = nomesDeclarados.stream().filter(nome -> !existentes.contains(nome)).sorted().toList();
+            List<String> naoDeclarados = existentes.stream()
+                    .filter(nome -> !INDICE_ID.equals(nome) && !nomesDeclarados.contains(nome))
+                    .sorted().toList();
+
+            Map<String, String> falhasColecao = new LinkedHashMap<>();
+            falhas.forEach((chave, erro) -> {
+                if (chave.startsWith(colecao + ".")) {
+                    falhasColecao.put(chave.substring(colecao.length() + 1), erro);
+                }
+            });
+
+            colecoes.add(new SituacaoColecao(colecao, presentes, ausentes, naoUtilizados(colecao),
+                    naoDeclarados, falhasColecao));
+        });
+        return new Relatorio(Instant.now(), colecoes);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private List<String> naoUtilizados(String colecao) {
+        List<String> nomes = new ArrayList<>();
+        for (Document estatistica : mongoTemplate.getCollection(colecao)
+                .aggregate(List.of(new Document("$indexStats", new Document())))) {
+            String nome = estatistica.getString("name");
+            Document acessos = estatistica.get("accesses", Document.class);
+            long operacoes = acessos == null ? 0 : ((Number) acessos.get("ops")).longValue();
+            if (operacoes == 0 && !INDICE_ID.equals(nome)) {
+                nomes.add(nome);
+            }
+        }
+        nomes.sort(null);
+        return nomes;
+    }
+}
@@ -0,0 +1,31 @@
+package com.Equipe1.AssinaturaDigital.Infra.Limite;
+
+import java.time.Duration;
+
+/**
+ * Balde de fichas por chave (regra + IP). A implementação local vale só para este nó;
+ * com app.limite.backend=mongo o estado é compartilhado e o limite vale para o cluster.
+ */
+public interface BaldeTokens {
+
+    /**
+     * Resultado de uma tentativa: se a requisição pode seguir e, se não, quanto esperar
+     */
+    record Consumo(boolean permitido, Duration esperar) {
+
+        static final Consumo PERMITIDO = new Consumo(true, Duration.ZERO);
+
+        static Consumo negado(long esperarNanos) {
+            return new Consumo(false, Duration.ofNanos(Math.max(esperarNanos, 1)));
+        }
+    }
+
+    Consumo consumir(String chave, int capacidade, double reposicaoPorSegundo);
+
+    /**
+     * Intervalo entre duas fichas, em nanos
+     */
+    static long intervaloNanos(double reposicaoPorSegundo) {
+        return Math.max(1, Math.round(1_000_000_000d / reposicaoPorSegundo));
+    }
+}
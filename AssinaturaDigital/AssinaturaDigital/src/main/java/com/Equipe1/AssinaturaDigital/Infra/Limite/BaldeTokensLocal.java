@@ -0,0 +1,47 @@
+package com.Equipe1.AssinaturaDigital.Infra.Limite;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Balde de fichas em memória, sem locks. Usa o GCRA (equivalente ao token bucket): cada chave
+ * guarda só o "instante teórico de chegada" num AtomicLong, atualizado por compare-and-set.
+ * Chaves sem uso saem do cache, então a memória não cresce com a quantidade de IPs.
+ */
+@Component
+@ConditionalOnProperty(name = "app.limite.backend", havingValue = "local", matchIfMissing = true)
+public class BaldeTokensLocal implements BaldeTokens {
+
+    private final Cache<String, AtomicLong> chegadas = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+
+    @Override
+    public Consumo consumir(String chave, int capacidade, double reposicaoPorSegundo) {
+        long intervalo = BaldeTokens.intervaloNanos(reposicaoPorSegundo);
+        long tolerancia = intervalo * capacidade;
+        AtomicLong chegada = chegadas.get(chave, k -> new AtomicLong(Long.MIN_VALUE));
+
+        while (true) {
+            long agora = System.nanoTime();
+            long atual = chegada.get();
+            // Balde cheio (ou chave nova): parte de agora
+            long base = atual == Long.MIN_VALUE || atual - agora < 0 ? agora : atual;
+            long proxima = base + intervalo;
+            long excesso = proxima - agora - tolerancia;
+            if (excesso > 0) {
+                return Consumo.negado(excesso);
+            }
+            if (chegada.compareAndSet(atual, proxima)) {
+                return Consumo.PERMITIDO;
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.Equipe1.AssinaturaDigital.Infra.Limite;
+
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReturnDocument;
+
+/**
+ * Balde de fichas compartilhado entre nós pela coleção limites_requisicao: o mesmo GCRA do
+ * balde local, aplicado num único findOneAndUpdate com pipeline (atômico por chave). Se o
+ * Mongo falhar, cai para o balde local, para o limite continuar valendo ao menos por nó.
+ */
+@Component
+@ConditionalOnProperty(name = "app.limite.backend", havingValue = "mongo")
+public class BaldeTokensMongo implements BaldeTokens {
+
+    public static final String COLECAO = "limites_requisicao";
+
+    private static final Logger log = LoggerFactory.getLogger(BaldeTokensMongo.class);
+    private static final long NANOS_POR_MILI = 1_000_000L;
+
+    private final MongoTemplate mongoTemplate;
+    private final BaldeTokensLocal reserva = new BaldeTokensLocal();
+    private volatile long ultimoAviso;
+
+    public BaldeTokensMongo(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Consumo consumir(String chave, int capacidade, double reposicaoPorSegundo) {
+        long intervalo = Math.max(1, BaldeTokens.intervaloNanos(reposicaoPorSegundo) / NANOS_POR_MILI);
+        long tolerancia = intervalo * capacidade;
+        long agora = System.currentTimeMillis();
+
+        // tat = instante teórico de chegada (ms); expiraEm alimenta o índice TTL
+        List<Bson> pipeline = List.of(
+                new Document("$set", new Document("base",
+                        new Document("$max", List.of(new Document("$ifNull", List.of("$tat", agora)), agora)))),
+                new Document("$set", new Document("permitido",
+                        new Document("$lte", List.of(new Document("$subtract", List.of(
+                                new Document("$add", List.of("$base", intervalo)), agora)), tolerancia)))),
+                new Document("$set", new Document("tat",
+                        new Document("$cond", List.of("$permitido", new Document("$add", List.of("$base", intervalo)), "$base")))
+                        .append("expiraEm", new Date(agora + tolerancia + intervalo))),
+                new Document("$unset", "base"));
+
+        try {
+            Document estado = mongoTemplate.getCollection(COLECAO).findOneAndUpdate(
+                    Filters.eq("_id", chave), pipeline,
+                    new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+            if (estado == null || estado.getBoolean("permitido", true)) {
+                return Consumo.PERMITIDO;
+            }
+            long excesso = estado.getLong("tat") + intervalo - agora - tolerancia;
+            return Consumo.negado(excesso * NANOS_POR_MILI);
+        } catch (MongoException | DataAccessException e) {
+            avisar(e);
+            return reserva.consumir(chave, capacidade, reposicaoPorSegundo);
+        }
+    }
+
+    // Um aviso por minuto no máximo: com o Mongo fora, toda requisição passaria por aqui
+    private void avisar(RuntimeException e) {
+        long agora = System.currentTimeMillis();
+        if (agora - ultimoAviso > 60_000) {
+            ultimoAviso = agora;
+            log.warn("Limite de requisições usando o balde local: Mongo indisponível ({})", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.Equipe1.AssinaturaDigital.Infra.Limite;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Isola grupos de rotas (assinatura pública, back-office, leituras pesadas/exportações) com um
+ * semáforo e uma fila limitada por grupo: um pico de exportações ocupa no máximo as vagas do
+ * seu grupo, e o que passar da fila (ou esperar mais que espera-maxima) recebe 503 na hora.
+ * Em respostas assíncronas (exportação em streaming) a vaga só é devolvida quando a resposta termina.
+ *
+ * Roda depois do Spring Security e do filtro de links públicos, para requisições recusadas
+ * por eles não ocuparem vagas.
+ */
+@Component
+@Order(-40)
+@EnableConfigurationProperties(CompartimentosProperties.class)
+public class CompartimentosFilter extends OncePerRequestFilter {
+
+    private final boolean habilitado;
+    private final List<Compartimento> compartimentos = new ArrayList<>();
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    private record Rota(String metodo, String padrao) {
+
+        static Rota de(String texto) {
+            String[] partes = texto.trim().split("\\s+", 2);
+            return partes.length == 2 ? new Rota(partes[0], partes[1]) : new Rota(null, partes[0]);
+        }
+    }
+
+    private record Compartimento(String nome, List<Rota> rotas, CompartimentosProperties.Grupo grupo,
+                                 Semaphore vagas, AtomicInteger naFila, Timer espera, Counter rejeitadas) {
+    }
+
+    public CompartimentosFilter(CompartimentosProperties properties, MeterRegistry registry) {
+        this.habilitado = properties.habilitado();
+        properties.grupos().forEach((nome, grupo) -> {
+            Semaphore vagas = new Semaphore(grupo.concorrencia(), true);
+            AtomicInteger naFila = new AtomicInteger();
+            Gauge.builder("compartimento.em_uso", vagas, semaforo -> grupo.concorrencia() - semaforo.availablePermits())
+                    .description("Requisições em execução no compartimento")
+                    .tag("grupo", nome)
+                    .register(registry);
+            Gauge.builder("compartimento.fila", naFila, AtomicInteger::get)
+                    .description("Requisições aguardando vaga no compartimento")
+                    .tag("grupo", nome)
+                    .register(registry);
+            Timer espera = Timer.builder("compartimento.espera")
+                    .description("Tempo de espera por uma vaga no compartimento")
+                    .tag("grupo", nome)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            Counter rejeitadas = Counter.builder("compartimento.rejeicoes")
+                    .description("Requisições descartadas por falta de vaga no compartimento")
+                    .tag("grupo", nome)
+                    .register(registry);
+            compartimentos.add(new Compartimento(nome, grupo.rotas().stream().map(Rota::de).toList(), grupo,
+                    vagas, naFila, espera, rejeitadas));
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado || compartimentos.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Compartimento compartimento = compartimentoDa(request);
+        if (compartimento == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!entrar(compartimento)) {
+            compartimento.rejeitadas().increment();
+            responder(response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            LiberacaoVaga.aoTerminar(request, compartimento.vagas());
+        }
+    }
+
+    /**
+     * Entra na fila (se houver lugar) e espera uma vaga por no máximo espera-maxima
+     */
+    private boolean entrar(Compartimento compartimento) {
+        Semaphore vagas = compartimento.vagas();
+        if (vagas.tryAcquire()) {
+            compartimento.espera().record(0, TimeUnit.NANOSECONDS);
+            return true;
+        }
+        if (compartimento.naFila().incrementAndGet() > compartimento.grupo().fila()) {
+            compartimento.naFila().decrementAndGet();
+            return false;
+        }
+        long inicio = System.nanoTime();
+        try {
+            return vagas.tryAcquire(compartimento.grupo().esperaMaxima().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            compartimento.naFila().decrementAndGet();
+            compartimento.espera().record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Compartimento compartimentoDa(HttpServletRequest request) {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        for (Compartimento compartimento : compartimentos) {
+            for (Rota rota : compartimento.rotas()) {
+                if ((rota.metodo() == null || rota.metodo().equalsIgnoreCase(request.getMethod()))
+                        && matcher.match(rota.padrao(), caminho)) {
+                    return compartimento;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Resposta escrita direto: um sendError cairia no /error, que exige autenticação
+    private static void responder(HttpServletResponse response) throws IOException {
+        byte[] corpo = "Serviço sobrecarregado, tente novamente".getBytes(StandardCharsets.UTF_8);
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType("text/plain;charset=UTF-8");
+        response.setContentLength(corpo.length);
+        response.getOutputStream().write(corpo);
+    }
+}
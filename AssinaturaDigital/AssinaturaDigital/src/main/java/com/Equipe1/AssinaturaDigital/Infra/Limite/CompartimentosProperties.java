@@ -0,0 +1,41 @@
+package com.Equipe1.AssinaturaDigital.Infra.Limite;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Compartimentos (bulkheads) por grupo de rotas, avaliados na ordem da configuração.
+ * Cada rota é "padrão" ou "MÉTODO padrão", por exemplo "GET /Assinaturas" ou "/Assinaturas/exportar".
+ * A soma de concorrencia + fila de todos os grupos deve caber no pool do Tomcat
+ * (server.tomcat.threads.max), senão um grupo ainda consegue esgotar as threads dos outros.
+ */
+@ConfigurationProperties(prefix = "app.compartimentos")
+public record CompartimentosProperties(
+        @DefaultValue("true") boolean habilitado,
+        Map<String, Grupo> grupos) {
+
+    public CompartimentosProperties {
+        grupos = grupos == null ? Map.of() : new LinkedHashMap<>(grupos);
+    }
+
+    public record Grupo(
+            List<String> rotas,
+            @DefaultValue("50") int concorrencia,
+            @DefaultValue("20") int fila,
+            @DefaultValue("PT1S") Duration esperaMaxima) {
+
+        public Grupo {
+            if (rotas == null || rotas.isEmpty()) {
+                throw new IllegalArgumentException("Compartimento sem rotas");
+            }
+            if (concorrencia < 1 || fila < 0) {
+                throw new IllegalArgumentException("Compartimento com concorrência ou fila inválida");
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.Equipe1.AssinaturaDigital.Infra.Limite;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Devolve a vaga de um semáforo uma única vez, seja no fim da requisição síncrona ou do
+ * processamento assíncrono (confirmação reativa, exportação em streaming)
+ */
+final class LiberacaoVaga implements AsyncListener {
+
+    private final Semaphore vagas;
+    private final AtomicBoolean liberada = new AtomicBoolean();
+
+    private LiberacaoVaga(Semaphore vagas) {
+        this.vagas = vagas;
+    }
+
+    /**
+     * Chamado no finally do filtro: libera já ou, se a requisição ficou assíncrona, quando ela terminar
+     */
+    static void aoTerminar(HttpServletRequest request, Semaphore vagas) {
+        LiberacaoVaga liberacao = new LiberacaoVaga(vagas);
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(liberacao);
+        } else {
+            liberacao.liberar();
+        }
+    }
+
+    private void liberar() {
+        if (liberada.compareAndSet(false, true)) {
+            vagas.release();
+        }
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        liberar();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        liberar();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        liberar();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+        // um novo ciclo assíncrono reaproveita a mesma vaga
+        event.getAsyncContext().addListener(this);
+    }
+}
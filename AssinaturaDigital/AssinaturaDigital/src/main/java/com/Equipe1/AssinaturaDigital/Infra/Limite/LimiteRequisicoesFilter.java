@@ -0,0 +1,149 @@
+package com.Equipe1.AssinaturaDigital.Infra.Limite;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limite de taxa e de concorrência das rotas abertas (login, cadastro e links públicos de
+ * assinatura). A taxa é um balde de fichas por regra e IP: estourou, 429 com Retry-After.
+ * A concorrência é um semáforo por regra: quem esperar na fila mais que espera-maxima é
+ * descartado com 503, em vez de acumular threads (o login com BCrypt ocupa um núcleo inteiro).
+ * Em respostas assíncronas (confirmação no perfil reativo) a vaga só volta quando a resposta termina.
+ *
+ * O IP é o de getRemoteAddr, já corrigido pelo Tomcat a partir do X-Forwarded-For dos proxies
+ * confiáveis (server.forward-headers-strategy=native); sem isso, todos os clientes atrás do
+ * balanceador dividiriam o mesmo balde.
+ *
+ * Roda logo depois do filtro de correlação, antes do Spring Security e de qualquer acesso ao banco.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@EnableConfigurationProperties(LimiteRequisicoesProperties.class)
+public class LimiteRequisicoesFilter extends OncePerRequestFilter {
+
+    private final BaldeTokens baldeTokens;
+    private final boolean habilitado;
+    private final List<RegraAtiva> regras = new ArrayList<>();
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    private record RegraAtiva(String nome, LimiteRequisicoesProperties.Regra regra, Semaphore vagas,
+                              Counter rejeitadasTaxa, Counter rejeitadasConcorrencia) {
+    }
+
+    public LimiteRequisicoesFilter(LimiteRequisicoesProperties properties, BaldeTokens baldeTokens,
+                                   MeterRegistry registry) {
+        this.baldeTokens = baldeTokens;
+        this.habilitado = properties.habilitado();
+        properties.regras().forEach((nome, regra) -> {
+            Semaphore vagas = regra.concorrencia() > 0 ? new Semaphore(regra.concorrencia(), true) : null;
+            if (vagas != null) {
+                Gauge.builder("limite.concorrencia.em_uso", vagas, semaforo -> regra.concorrencia() - semaforo.availablePermits())
+                        .description("Requisições em execução na regra de concorrência")
+                        .tag("regra", nome)
+                        .register(registry);
+            }
+            regras.add(new RegraAtiva(nome, regra, vagas,
+                    contador(registry, nome, "taxa"), contador(registry, nome, "concorrencia")));
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado || regras.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RegraAtiva ativa = regraDa(request);
+        if (ativa == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        LimiteRequisicoesProperties.Regra regra = ativa.regra();
+
+        BaldeTokens.Consumo consumo = baldeTokens.consumir(ativa.nome() + ":" + request.getRemoteAddr(),
+                regra.capacidade(), regra.reposicaoPorSegundo());
+        if (!consumo.permitido()) {
+            ativa.rejeitadasTaxa().increment();
+            long segundos = Math.max(1, (consumo.esperar().toMillis() + 999) / 1000);
+            responder(response, HttpStatus.TOO_MANY_REQUESTS, segundos, "Muitas requisições, tente novamente mais tarde");
+            return;
+        }
+
+        Semaphore vagas = ativa.vagas();
+        if (vagas == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean obteve;
+        try {
+            obteve = vagas.tryAcquire(regra.esperaMaxima().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            obteve = false;
+        }
+        if (!obteve) {
+            ativa.rejeitadasConcorrencia().increment();
+            responder(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Serviço sobrecarregado, tente novamente");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            LiberacaoVaga.aoTerminar(request, vagas);
+        }
+    }
+
+    private RegraAtiva regraDa(HttpServletRequest request) {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        for (RegraAtiva ativa : regras) {
+            LimiteRequisicoesProperties.Regra regra = ativa.regra();
+            if ((regra.metodo() == null || regra.metodo().equalsIgnoreCase(request.getMethod()))
+                    && matcher.match(regra.padrao(), caminho)) {
+                return ativa;
+            }
+        }
+        return null;
+    }
+
+    // Resposta escrita direto: um sendError cairia no /error, que exige autenticação
+    private static void responder(HttpServletResponse response, HttpStatus status, long retryAfter, String mensagem)
+            throws IOException {
+        byte[] corpo = mensagem.getBytes(StandardCharsets.UTF_8);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.setContentLength(corpo.length);
+        response.getOutputStream().write(corpo);
+    }
+
+    private static Counter contador(MeterRegistry registry, String regra, String motivo) {
+        return Counter.builder("limite.rejeicoes")
+                .description("Requisições recusadas pelo limite de taxa ou de concorrência")
+                .tag("regra", regra)
+                .tag("motivo", motivo)
+                .register(registry);
+    }
+}
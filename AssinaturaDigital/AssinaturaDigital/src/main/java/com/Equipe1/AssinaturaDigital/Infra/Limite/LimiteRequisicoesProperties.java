@@ -0,0 +1,42 @@
+package com.Equipe1.AssinaturaDigital.Infra.Limite;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limites por rota, cada um com um nome: app.limite.regras.login.padrao=/auth/login,
+ * capacidade (rajada), reposicao-por-segundo, concorrencia (0 = sem limite) e espera-maxima
+ * na fila da concorrência antes de descartar a requisição.
+ */
+@ConfigurationProperties(prefix = "app.limite")
+public record LimiteRequisicoesProperties(
+        @DefaultValue("true") boolean habilitado,
+        Map<String, Regra> regras) {
+
+    public LimiteRequisicoesProperties {
+        // A ordem da configuração é a ordem de avaliação: a primeira regra que casar vale
+        regras = regras == null ? Map.of() : new LinkedHashMap<>(regras);
+    }
+
+    public record Regra(
+            String padrao,
+            String metodo,
+            @DefaultValue("20") int capacidade,
+            @DefaultValue("5") double reposicaoPorSegundo,
+            @DefaultValue("0") int concorrencia,
+            @DefaultValue("PT1S") Duration esperaMaxima) {
+
+        public Regra {
+            if (padrao == null || padrao.isBlank()) {
+                throw new IllegalArgumentException("Regra de limite sem padrão de rota");
+            }
+            if (capacidade < 1 || reposicaoPorSegundo <= 0) {
+                throw new IllegalArgumentException("Regra de limite " + padrao + " com capacidade ou reposição inválida");
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.Equipe1.AssinaturaDigital.Infra.Log;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Taxas de amostragem do log de requisições (0.0 a 1.0). As rotas usam o padrão do
+ * mapeamento, por exemplo app.log.requisicoes.rotas[/Assinaturas/{id}/confirmar]=1.0.
+ * Erros 5xx e requisições mais lentas que "lenta" são sempre logados.
+ */
+@ConfigurationProperties(prefix = "app.log.requisicoes")
+public record AmostragemLogProperties(
+        @DefaultValue("0.01") double padrao,
+        @DefaultValue("PT2S") Duration lenta,
+        Map<String, Double> rotas) {
+
+    public AmostragemLogProperties {
+        rotas = rotas == null ? Map.of() : Map.copyOf(rotas);
+    }
+
+    public double taxa(String rota) {
+        return rotas.getOrDefault(rota, padrao);
+    }
+}
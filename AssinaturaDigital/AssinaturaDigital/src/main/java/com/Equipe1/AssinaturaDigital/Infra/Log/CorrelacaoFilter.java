@@ -0,0 +1,78 @@
+package com.Equipe1.AssinaturaDigital.Infra.Log;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Primeiro filtro da cadeia: associa um id de correlação à requisição (X-Request-Id recebido
+ * ou um novo), coloca no MDC para aparecer em todos os logs e devolve no cabeçalho da resposta.
+ * Ao final registra uma linha por requisição, amostrada por rota.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@EnableConfigurationProperties(AmostragemLogProperties.class)
+public class CorrelacaoFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "X-Request-Id";
+    public static final String CHAVE_MDC = "requestId";
+
+    private static final Logger log = LoggerFactory.getLogger("requisicoes");
+    private static final Pattern ID_VALIDO = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final AmostragemLogProperties amostragem;
+
+    public CorrelacaoFilter(AmostragemLogProperties amostragem) {
+        this.amostragem = amostragem;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(CABECALHO);
+        if (requestId == null || !ID_VALIDO.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+
+        MDC.put(CHAVE_MDC, requestId);
+        response.setHeader(CABECALHO, requestId);
+        long inicio = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            registrar(request, response, (System.nanoTime() - inicio) / 1_000_000);
+            MDC.remove(CHAVE_MDC);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, HttpServletResponse response, long duracaoMs) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        int status = response.getStatus();
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // A rota usa o padrão do mapeamento, nunca a URI com ids (que já podem ser dado pessoal)
+        String rota = padrao != null ? padrao.toString() : "(sem rota)";
+
+        boolean sempre = status >= 500 || duracaoMs >= amostragem.lenta().toMillis();
+        if (sempre || ThreadLocalRandom.current().nextDouble() < amostragem.taxa(rota)) {
+            log.info("requisicao metodo={} rota=\"{}\" status={} duracaoMs={}", request.getMethod(), rota, status, duracaoMs);
+        }
+    }
+}
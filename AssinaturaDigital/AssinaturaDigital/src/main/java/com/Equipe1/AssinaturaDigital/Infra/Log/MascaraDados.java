@@ -0,0 +1,30 @@
+package com.Equipe1.AssinaturaDigital.Infra.Log;
+
+/**
+ * Mascaramento de dados pessoais antes de irem para o log. CPF mostra só os dois
+ * dígitos verificadores; selfies nunca são logadas, apenas o tamanho.
+ */
+public final class MascaraDados {
+
+    private MascaraDados() {
+    }
+
+    public static String cpf(String cpf) {
+        if (cpf == null) {
+            return null;
+        }
+        String digitos = cpf.replaceAll("\\D", "");
+        if (digitos.length() < 2) {
+            return "***";
+        }
+        return "*".repeat(digitos.length() - 2) + digitos.substring(digitos.length() - 2);
+    }
+
+    public static String selfie(String selfieBase64) {
+        return selfieBase64 == null ? null : "[selfie " + selfieBase64.length() + " caracteres]";
+    }
+
+    public static String selfie(long tamanhoBytes) {
+        return "[selfie " + tamanhoBytes + " bytes]";
+    }
+}
@@ -0,0 +1,196 @@
+package com.Equipe1.AssinaturaDigital.Infra.Paginacao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonParseException;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Paginação por cursor (keyset) sobre o _id, que sempre tem índice. Em vez de skip/offset,
+ * cada página continua a partir do último _id devolvido, então o custo é o mesmo na
+ * primeira e na milésima página. Como o ObjectId cresce com o tempo, ordenar por _id
+ * equivale a ordenar por data de criação.
+ *
+ * Também é possível ordenar por um campo de uma lista fechada por coleção (cada um com
+ * índice terminado em _id): aí o cursor leva o par (campo, _id) e a próxima página continua
+ * depois desse par. Documentos sem o campo (null) ficam antes de todos no sentido crescente.
+ */
+@Component
+public class ConsultaPaginada {
+
+    /**
+     * Campo aceito em ?ordenarPor= e como ler o valor dele no último item da página
+     */
+    public record Ordenacao<T>(String campo, Function<T, Object> valor) {
+    }
+
+    private static final JsonWriterSettings JSON_CURSOR = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
+    private final MongoTemplate mongoTemplate;
+    private final int tamanhoPadrao;
+    private final int tamanhoMaximo;
+
+    public ConsultaPaginada(MongoTemplate mongoTemplate,
+                            @Value("${app.paginacao.tamanho-padrao:20}") int tamanhoPadrao,
+                            @Value("${app.paginacao.tamanho-maximo:200}") int tamanhoMaximo) {
+        this.mongoTemplate = mongoTemplate;
+        this.tamanhoPadrao = tamanhoPadrao;
+        this.tamanhoMaximo = tamanhoMaximo;
+    }
+
+    /**
+     * Busca uma página de documentos carregando apenas os campos informados (o id vem sempre)
+     */
+    public <T> Pagina<T> buscar(Class<T> tipo, Criteria filtro, String cursor, Integer tamanho,
+                                boolean decrescente, Set<String> campos, Function<T, String> id) {
+        int limite = resolverTamanho(tamanho);
+
+        Query query = new Query();
+        if (filtro != null) {
+            query.addCriteria(filtro);
+        }
+        if (StringUtils.hasText(cursor)) {
+            ObjectId ultimo = decodificarCursor(cursor);
+            query.addCriteria(decrescente ? Criteria.where("_id").lt(ultimo) : Criteria.where("_id").gt(ultimo));
+        }
+        query.with(Sort.by(decrescente ? Sort.Direction.DESC : Sort.Direction.ASC, "_id"));
+        // Um item a mais só para saber se existe próxima página
+        query.limit(limite + 1);
+        campos.forEach(query.fields()::include);
+
+        List<T> itens = mongoTemplate.find(query, tipo);
+        if (itens.size() <= limite) {
+            return new Pagina<>(itens, null);
+        }
+        List<T> pagina = itens.subList(0, limite);
+        return new Pagina<>(List.copyOf(pagina), id.apply(pagina.get(limite - 1)));
+    }
+
+    /**
+     * Como {@link #buscar(Class, Criteria, String, Integer, boolean, Set, Function)}, ordenando por
+     * um dos campos permitidos (desempate pelo _id). Sem ordenarPor, a ordem é só pelo _id.
+     */
+    public <T> Pagina<T> buscar(Class<T> tipo, Criteria filtro, String cursor, Integer tamanho, boolean decrescente,
+                                Set<String> campos, Function<T, String> id,
+                                String ordenarPor, Map<String, Ordenacao<T>> permitidas) {
+        if (!StringUtils.hasText(ordenarPor) || "_id".equals(ordenarPor)) {
+            return buscar(tipo, filtro, cursor, tamanho, decrescente, campos, id);
+        }
+        Ordenacao<T> ordenacao = permitidas.get(ordenarPor);
+        if (ordenacao == null) {
+            throw new IllegalArgumentException("Ordenação não permitida: " + ordenarPor);
+        }
+        int limite = resolverTamanho(tamanho);
+        String campo = ordenacao.campo();
+
+        Query query = new Query();
+        if (filtro != null) {
+            query.addCriteria(filtro);
+        }
+        if (StringUtils.hasText(cursor)) {
+            Document ultimo = decodificarCursorComposto(cursor);
+            query.addCriteria(depoisDe(campo, ultimo.get("v"), ultimo.getObjectId("id"), decrescente));
+        }
+        Sort.Direction direcao = decrescente ? Sort.Direction.DESC : Sort.Direction.ASC;
+        query.with(Sort.by(direcao, campo).and(Sort.by(direcao, "_id")));
+        query.limit(limite + 1);
+        campos.forEach(query.fields()::include);
+        // O valor do campo é necessário para montar o cursor, mesmo fora da projeção pedida
+        query.fields().include(campo);
+
+        List<T> itens = mongoTemplate.find(query, tipo);
+        if (itens.size() <= limite) {
+            return new Pagina<>(itens, null);
+        }
+        List<T> pagina = itens.subList(0, limite);
+        T ultimoItem = pagina.get(limite - 1);
+        Object valor = mongoTemplate.getConverter().convertToMongoType(ordenacao.valor().apply(ultimoItem));
+        return new Pagina<>(List.copyOf(pagina), codificarCursor(valor, id.apply(ultimoItem)));
+    }
+
+    /**
+     * Converte o parâmetro ?campos=a,b,c nos campos da projeção. Sem parâmetro, usa o resumo
+     * da listagem; campos fora da lista de permitidos são rejeitados.
+     */
+    public static Set<String> resolverCampos(String campos, Set<String> permitidos, Set<String> resumo) {
+        if (!StringUtils.hasText(campos)) {
+            return resumo;
+        }
+        Set<String> selecionados = new LinkedHashSet<>();
+        for (String campo : Arrays.stream(campos.split(",")).map(String::trim).filter(StringUtils::hasText).toList()) {
+            if (!permitidos.contains(campo)) {
+                throw new IllegalArgumentException("Campo não permitido na listagem: " + campo);
+            }
+            selecionados.add(campo);
+        }
+        return selecionados.isEmpty() ? resumo : selecionados;
+    }
+
+    private int resolverTamanho(Integer tamanho) {
+        if (tamanho == null) {
+            return tamanhoPadrao;
+        }
+        if (tamanho < 1) {
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que zero");
+        }
+        return Math.min(tamanho, tamanhoMaximo);
+    }
+
+    private ObjectId decodificarCursor(String cursor) {
+        if (!ObjectId.isValid(cursor)) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+        return new ObjectId(cursor);
+    }
+
+    // Próximo par (campo, _id) na ordem pedida. O null vem antes de qualquer valor e não entra
+    // nas comparações $gt/$lt, por isso tem ramo próprio.
+    private static Criteria depoisDe(String campo, Object valor, ObjectId id, boolean decrescente) {
+        Criteria mesmoValorDepoisDoId = decrescente
+                ? Criteria.where(campo).is(valor).and("_id").lt(id)
+                : Criteria.where(campo).is(valor).and("_id").gt(id);
+        if (valor == null) {
+            return decrescente
+                    ? mesmoValorDepoisDoId
+                    : new Criteria().orOperator(Criteria.where(campo).ne(null), mesmoValorDepoisDoId);
+        }
+        return decrescente
+                ? new Criteria().orOperator(Criteria.where(campo).lt(valor), Criteria.where(campo).is(null), mesmoValorDepoisDoId)
+                : new Criteria().orOperator(Criteria.where(campo).gt(valor), mesmoValorDepoisDoId);
+    }
+
+    // Extended JSON preserva o tipo do valor (data, texto, número) entre uma página e outra
+    private static String codificarCursor(Object valor, String id) {
+        String json = new Document("v", valor).append("id", new ObjectId(id)).toJson(JSON_CURSOR);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Document decodificarCursorComposto(String cursor) {
+        try {
+            Document ultimo = Document.parse(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (ultimo.containsKey("v") && ultimo.get("id") instanceof ObjectId) {
+                return ultimo;
+            }
+        } catch (IllegalArgumentException | JsonParseException e) {
+            // cai no erro abaixo
+        }
+        throw new IllegalArgumentException("Cursor inválido: " + cursor);
+    }
+}
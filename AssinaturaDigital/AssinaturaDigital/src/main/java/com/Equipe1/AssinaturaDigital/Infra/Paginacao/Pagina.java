@@ -0,0 +1,14 @@
+package com.Equipe1.AssinaturaDigital.Infra.Paginacao;
+
+import java.util.List;
+
+/**
+ * Uma página de resultados. Para buscar a próxima, envie proximoCursor como ?cursor=.
+ * Quando não há mais itens, proximoCursor vem nulo.
+ */
+public record Pagina<T>(List<T> itens, String proximoCursor) {
+
+    public boolean temMais() {
+        return proximoCursor != null;
+    }
+}
@@ -0,0 +1,108 @@
+package com.Equipe1.AssinaturaDigital.Infra.Security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.Equipe1.AssinaturaDigital.Funcionario.FuncionarioModel;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache de tokens já validados para o funcionário autenticado, para que requisições
+ * autenticadas não precisem ir ao Mongo. Cada entrada vive no máximo até a expiração do
+ * próprio token (ou app.security.cache.ttl, o que vier antes) e é descartada quando o
+ * funcionário é alterado ou removido. Métricas em cache.gets{cache=autenticacao}.
+ *
+ * Como no CacheEntidade, uma contagem de invalidações impede que uma autenticação que leu o
+ * funcionário antes de uma alteração grave no cache os dados antigos.
+ */
+@Component
+public class CacheAutenticacao {
+
+    private record Entrada(FuncionarioModel funcionario, Instant expiraEm) {
+    }
+
+    private final Cache<String, Entrada> cache;
+    private final AtomicLong invalidacoes = new AtomicLong();
+
+    public CacheAutenticacao(@Value("${app.security.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                             @Value("${app.security.cache.ttl:PT15M}") Duration ttlMaximo,
+                             MeterRegistry registry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(new ExpiraJuntoComToken(ttlMaximo))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "autenticacao");
+    }
+
+    public FuncionarioModel buscar(String token) {
+        Entrada entrada = cache.getIfPresent(token);
+        return entrada == null ? null : entrada.funcionario();
+    }
+
+    /**
+     * Marca lida antes de consultar o funcionário no Mongo, para usar em {@link #guardar}
+     */
+    public long geracao() {
+        return invalidacoes.get();
+    }
+
+    /**
+     * Guarda o funcionário carregado; se algum funcionário foi alterado ou removido desde a
+     * leitura da geração, a entrada é descartada (a próxima requisição consulta de novo)
+     */
+    public void guardar(String token, FuncionarioModel funcionario, Instant expiraEm, long geracao) {
+        if (expiraEm == null || !expiraEm.isAfter(Instant.now())) {
+            return;
+        }
+        cache.put(token, new Entrada(funcionario, expiraEm));
+        if (invalidacoes.get() != geracao) {
+            cache.invalidate(token);
+        }
+    }
+
+    /**
+     * Descarta todos os tokens em cache do funcionário (alteração de dados, senha ou remoção)
+     */
+    public void invalidarFuncionario(String id, String email) {
+        invalidacoes.incrementAndGet();
+        cache.asMap().values().removeIf(entrada ->
+                (id != null && Objects.equals(id, entrada.funcionario().getId()))
+                        || (email != null && email.equalsIgnoreCase(entrada.funcionario().getEmail())));
+    }
+
+    private static final class ExpiraJuntoComToken implements Expiry<String, Entrada> {
+
+        private final long ttlMaximoNanos;
+
+        ExpiraJuntoComToken(Duration ttlMaximo) {
+            this.ttlMaximoNanos = ttlMaximo.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String token, Entrada entrada, long agora) {
+            long ateExpirar = Duration.between(Instant.now(), entrada.expiraEm()).toNanos();
+            return Math.max(0, Math.min(ttlMaximoNanos, ateExpirar));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Entrada entrada, long agora, long duracaoAtual) {
+            return expireAfterCreate(token, entrada, agora);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Entrada entrada, long agora, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+}
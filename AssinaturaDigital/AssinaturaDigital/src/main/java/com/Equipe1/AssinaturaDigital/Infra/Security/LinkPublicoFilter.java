@@ -0,0 +1,135 @@
+package com.Equipe1.AssinaturaDigital.Infra.Security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Porteiro das rotas públicas de assinatura (publica, pdf, assinar, confirmar). O segmento
+ * do caminho deve ser um token de link válido e dentro da validade. O id cru da assinatura só
+ * é aceito de funcionários autenticados; links enviados antes dos tokens voltam a funcionar para o
+ * cliente apenas se app.assinatura.token.aceitar-id-publico for ligado explicitamente, durante a
+ * janela de transição (uma validade de link após a implantação). Tudo é decidido antes de qualquer
+ * acesso ao banco, e o token verificado fica num atributo da requisição para o controller.
+ *
+ * Roda depois do Spring Security (para saber quem está autenticado) e antes da idempotência.
+ */
+@Component
+@Order(-50)
+public class LinkPublicoFilter extends OncePerRequestFilter {
+
+    public static final String ATRIBUTO_TOKEN = LinkPublicoFilter.class.getName() + ".token";
+
+    private static final Pattern ROTA_PUBLICA = Pattern.compile("/Assinaturas/([^/]+)/(publica|pdf|assinar|confirmar)");
+
+    private final TokenAssinaturaService tokenAssinaturaService;
+    private final boolean aceitarIdPublico;
+    private final Counter rejeitadosInvalidos;
+    private final Counter rejeitadosExpirados;
+    private final Counter rejeitadosIdCru;
+    private final Counter aceitosIdCru;
+
+    public LinkPublicoFilter(TokenAssinaturaService tokenAssinaturaService, MeterRegistry registry,
+                             @Value("${app.assinatura.token.aceitar-id-publico:false}") boolean aceitarIdPublico) {
+        this.tokenAssinaturaService = tokenAssinaturaService;
+        this.aceitarIdPublico = aceitarIdPublico;
+        this.rejeitadosInvalidos = contador(registry, "invalido");
+        this.rejeitadosExpirados = contador(registry, "expirado");
+        this.rejeitadosIdCru = contador(registry, "id_cru");
+        this.aceitosIdCru = Counter.builder("assinaturas.links.id_cru.aceitos")
+                .description("Links antigos (id cru) aceitos sem token; zerado, aceitar-id-publico pode ser desligado")
+                .register(registry);
+    }
+
+    /**
+     * Token verificado pelo filtro nesta requisição, se o caminho trouxe um
+     */
+    public static Optional<TokenAssinaturaService.TokenAssinatura> tokenDa(HttpServletRequest request) {
+        return Optional.ofNullable((TokenAssinaturaService.TokenAssinatura) request.getAttribute(ATRIBUTO_TOKEN));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !ROTA_PUBLICA.matcher(caminho(request)).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Matcher rota = ROTA_PUBLICA.matcher(caminho(request));
+        rota.matches();
+        String segmento = rota.group(1);
+
+        if (TokenAssinaturaService.ehIdBruto(segmento)) {
+            if (!aceitarIdPublico && !autenticado()) {
+                rejeitadosIdCru.increment();
+                responder(response, HttpStatus.UNAUTHORIZED, "Link de assinatura inválido");
+                return;
+            }
+            if (!autenticado()) {
+                aceitosIdCru.increment();
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Optional<TokenAssinaturaService.TokenAssinatura> token = tokenAssinaturaService.verificar(segmento);
+        if (token.isEmpty()) {
+            rejeitadosInvalidos.increment();
+            responder(response, HttpStatus.UNAUTHORIZED, "Link de assinatura inválido");
+            return;
+        }
+        if (token.get().expirado()) {
+            rejeitadosExpirados.increment();
+            responder(response, HttpStatus.GONE, "Link de assinatura expirado");
+            return;
+        }
+
+        request.setAttribute(ATRIBUTO_TOKEN, token.get());
+        filterChain.doFilter(request, response);
+    }
+
+    private static String caminho(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static boolean autenticado() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacao != null && autenticacao.isAuthenticated()
+                && !(autenticacao instanceof AnonymousAuthenticationToken);
+    }
+
+    // Resposta escrita direto: um sendError cairia no /error, que exige autenticação
+    private static void responder(HttpServletResponse response, HttpStatus status, String mensagem) throws IOException {
+        byte[] corpo = mensagem.getBytes(StandardCharsets.UTF_8);
+        response.setStatus(status.value());
+        response.setContentType("text/plain;charset=UTF-8");
+        response.setContentLength(corpo.length);
+        response.getOutputStream().write(corpo);
+    }
+
+    private static Counter contador(MeterRegistry registry, String motivo) {
+        return Counter.builder("assinaturas.links.rejeitados")
+                .description("Requisições às rotas públicas recusadas antes de consultar o banco")
+                .tag("motivo", motivo)
+                .register(registry);
+    }
+}
@@ -19,6 +19,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -52,6 +54,9 @@ public class SecurityConfig {
                                 
                                 // CORS preflight
                                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+
+                                // Continuação de respostas em streaming: a requisição original já foi autorizada
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                 
                                 // ============================================
                                 // TODOS OS OUTROS ENDPOINTS (protegidos)
@@ -77,7 +82,10 @@ public class SecurityConfig {
         CorsConfiguration config = new CorsConfiguration();
         config.setAllowedOriginPatterns(List.of("http://localhost:4200", "https://*.ngrok-free.app"));
         config.setAllowCredentials(true);
-        config.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Range", "If-None-Match", "If-Modified-Since",
+                "Idempotency-Key", "X-Request-Id"));
+        config.setExposedHeaders(List.of("ETag", "Last-Modified", "Accept-Ranges", "Content-Range", "Content-Length",
+                "Idempotent-Replayed", "Retry-After", "X-Request-Id"));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
 
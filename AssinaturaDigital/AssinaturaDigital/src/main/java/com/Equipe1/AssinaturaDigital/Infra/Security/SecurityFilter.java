@@ -5,6 +5,8 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -20,44 +22,53 @@ import java.util.Collections;
 
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(SecurityFilter.class);
+
     @Autowired
     TokenService tokenService;
     @Autowired
     FuncionarioRepository userRepository;
+    @Autowired
+    CacheAutenticacao cacheAutenticacao;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        
-        // LOGS PARA DEBUG - ADICIONE ESTES
-        System.out.println("=== SECURITY FILTER DEBUG ===");
-        System.out.println("Request URI: " + request.getRequestURI());
-        System.out.println("Request Method: " + request.getMethod());
-        System.out.println("Content-Type: " + request.getContentType());
-        
         var token = this.recoverToken(request);
-        System.out.println("Token extraído: " + (token != null ? "SIM" : "NÃO"));
         
         if(token != null){
-            var login = tokenService.validateToken(token);
-            System.out.println("Login validado: " + login);
-            
-            if(login != null){
-                try {
-                    FuncionarioModel user = userRepository.findByEmail(login).orElseThrow(() -> new RuntimeException("User Not Found"));
-                    var authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
-                    var authentication = new UsernamePasswordAuthenticationToken(user, null, authorities);
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    System.out.println("Usuário autenticado: " + user.getEmail());
-                } catch (Exception e) {
-                    System.out.println("Erro ao autenticar usuário: " + e.getMessage());
-                }
+            FuncionarioModel user = autenticar(token);
+            if(user != null){
+                var authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+                var authentication = new UsernamePasswordAuthenticationToken(user, null, authorities);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
-        System.out.println("=== FIM DEBUG ===");
         
         filterChain.doFilter(request, response);
     }
 
+    // Token já visto sai do cache; só o primeiro uso verifica a assinatura e consulta o Mongo
+    private FuncionarioModel autenticar(String token){
+        FuncionarioModel emCache = cacheAutenticacao.buscar(token);
+        if(emCache != null){
+            return emCache;
+        }
+
+        var validado = tokenService.verificar(token).orElse(null);
+        if(validado == null){
+            return null;
+        }
+        long geracao = cacheAutenticacao.geracao();
+        try {
+            FuncionarioModel user = userRepository.findByEmail(validado.login()).orElseThrow(() -> new RuntimeException("User Not Found"));
+            cacheAutenticacao.guardar(token, user, validado.expiraEm(), geracao);
+            return user;
+        } catch (Exception e) {
+            log.warn("Erro ao autenticar usuário: {}", e.getMessage());
+            return null;
+        }
+    }
+
     private String recoverToken(HttpServletRequest request){
         var authHeader = request.getHeader("Authorization");
         if(authHeader == null) return null;
@@ -0,0 +1,174 @@
+package com.Equipe1.AssinaturaDigital.Infra.Security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Pattern;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Token compacto dos links públicos de assinatura: id da assinatura, validade e (opcional)
+ * o SHA-256 do PDF, assinados com HMAC-SHA256. A verificação é só CPU, então um link forjado
+ * ou vencido é recusado sem consultar o banco.
+ *
+ * Formato (base64url sem padding): versão, flags, validade em segundos, id (12 bytes quando
+ * é um ObjectId), SHA-256 do PDF (32 bytes, se houver) e os 16 primeiros bytes do HMAC.
+ */
+@Service
+public class TokenAssinaturaService {
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final byte VERSAO = 1;
+    private static final int FLAG_OBJECT_ID = 1;
+    private static final int FLAG_PDF = 2;
+    private static final int TAMANHO_MAC = 16;
+    private static final int TAMANHO_OBJECT_ID = 12;
+    private static final int TAMANHO_SHA256 = 32;
+    private static final int TAMANHO_MAXIMO_TOKEN = 512;
+    private static final Pattern OBJECT_ID = Pattern.compile("[0-9a-f]{24}");
+
+    /**
+     * Conteúdo de um token com assinatura válida (a validade ainda precisa ser conferida)
+     */
+    public record TokenAssinatura(String assinaturaId, Instant expiraEm, String pdfSha256) {
+
+        public boolean expirado() {
+            return expiraEm.isBefore(Instant.now());
+        }
+    }
+
+    @Value("${app.assinatura.token.segredo:${api.security.token.secret}}")
+    private String segredo;
+
+    private SecretKeySpec chave;
+
+    // Mac não é thread-safe. Um pool (e não ThreadLocal) porque com threads virtuais cada
+    // requisição tem uma thread nova e o ThreadLocal recriaria o Mac toda vez
+    private final Queue<Mac> macs = new ConcurrentLinkedQueue<>();
+
+    @PostConstruct
+    void inicializar() {
+        this.chave = new SecretKeySpec(segredo.getBytes(StandardCharsets.UTF_8), ALGORITMO);
+        macs.offer(novoMac());
+    }
+
+    /**
+     * Um id de assinatura "cru" (ObjectId em hexadecimal), e não um token
+     */
+    public static boolean ehIdBruto(String valor) {
+        return valor != null && OBJECT_ID.matcher(valor).matches();
+    }
+
+    public String gerar(String assinaturaId, Instant expiraEm, String pdfSha256) {
+        boolean objectId = ehIdBruto(assinaturaId);
+        byte[] id = objectId ? HexFormat.of().parseHex(assinaturaId) : assinaturaId.getBytes(StandardCharsets.UTF_8);
+        byte[] pdf = pdfSha256 != null && pdfSha256.length() == TAMANHO_SHA256 * 2
+                ? HexFormat.of().parseHex(pdfSha256) : null;
+        if (!objectId && id.length > 255) {
+            throw new IllegalArgumentException("Id de assinatura grande demais para o token");
+        }
+
+        ByteBuffer conteudo = ByteBuffer.allocate(2 + Long.BYTES + 1 + id.length + (pdf != null ? pdf.length : 0));
+        conteudo.put(VERSAO);
+        conteudo.put((byte) ((objectId ? FLAG_OBJECT_ID : 0) | (pdf != null ? FLAG_PDF : 0)));
+        conteudo.putLong(expiraEm.getEpochSecond());
+        if (!objectId) {
+            conteudo.put((byte) id.length);
+        }
+        conteudo.put(id);
+        if (pdf != null) {
+            conteudo.put(pdf);
+        }
+        byte[] dados = Arrays.copyOf(conteudo.array(), conteudo.position());
+
+        byte[] token = Arrays.copyOf(dados, dados.length + TAMANHO_MAC);
+        System.arraycopy(assinar(dados), 0, token, dados.length, TAMANHO_MAC);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * Decodifica e confere o HMAC; token malformado ou forjado devolve vazio
+     */
+    public Optional<TokenAssinatura> verificar(String token) {
+        if (token == null || token.isEmpty() || token.length() > TAMANHO_MAXIMO_TOKEN) {
+            return Optional.empty();
+        }
+        byte[] bruto;
+        try {
+            bruto = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (bruto.length < 2 + Long.BYTES + TAMANHO_MAC || bruto[0] != VERSAO) {
+            return Optional.empty();
+        }
+
+        int tamanhoDados = bruto.length - TAMANHO_MAC;
+        byte[] dados = Arrays.copyOf(bruto, tamanhoDados);
+        byte[] mac = Arrays.copyOfRange(bruto, tamanhoDados, bruto.length);
+        if (!MessageDigest.isEqual(Arrays.copyOf(assinar(dados), TAMANHO_MAC), mac)) {
+            return Optional.empty();
+        }
+
+        ByteBuffer conteudo = ByteBuffer.wrap(dados);
+        conteudo.get();
+        int flags = conteudo.get();
+        Instant expiraEm = Instant.ofEpochSecond(conteudo.getLong());
+        int tamanhoId = (flags & FLAG_OBJECT_ID) != 0 ? TAMANHO_OBJECT_ID
+                : conteudo.hasRemaining() ? Byte.toUnsignedInt(conteudo.get()) : -1;
+        int tamanhoPdf = (flags & FLAG_PDF) != 0 ? TAMANHO_SHA256 : 0;
+        if (tamanhoId < 0 || conteudo.remaining() != tamanhoId + tamanhoPdf) {
+            return Optional.empty();
+        }
+
+        byte[] id = new byte[tamanhoId];
+        conteudo.get(id);
+        String assinaturaId = (flags & FLAG_OBJECT_ID) != 0
+                ? HexFormat.of().formatHex(id) : new String(id, StandardCharsets.UTF_8);
+        String pdfSha256 = null;
+        if (tamanhoPdf > 0) {
+            byte[] pdf = new byte[tamanhoPdf];
+            conteudo.get(pdf);
+            pdfSha256 = HexFormat.of().formatHex(pdf);
+        }
+        return Optional.of(new TokenAssinatura(assinaturaId, expiraEm, pdfSha256));
+    }
+
+    private byte[] assinar(byte[] dados) {
+        Mac mac = macs.poll();
+        if (mac == null) {
+            mac = novoMac();
+        }
+        try {
+            return mac.doFinal(dados);
+        } finally {
+            macs.offer(mac);
+        }
+    }
+
+    private Mac novoMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Não foi possível inicializar o HMAC dos links de assinatura", e);
+        }
+    }
+}
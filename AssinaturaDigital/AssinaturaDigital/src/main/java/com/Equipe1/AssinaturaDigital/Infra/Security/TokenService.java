@@ -2,26 +2,51 @@ package com.Equipe1.AssinaturaDigital.Infra.Security;
 
 import com.Equipe1.AssinaturaDigital.Funcionario.FuncionarioModel;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import jakarta.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Optional;
 
 @Service
 public class TokenService {
+    private static final String ISSUER = "login-auth-api";
+
     @Value("${api.security.token.secret}")
     private String secret;
+
+    // Algoritmo e verificador são imutáveis e thread-safe: criados uma vez só
+    private Algorithm algorithm;
+    private JWTVerifier verifier;
+
+    /**
+     * Token já verificado: login (subject) e instante de expiração
+     */
+    public record TokenValidado(String login, Instant expiraEm) {
+    }
+
+    @PostConstruct
+    void inicializar() {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+    }
+
     public String generateToken(FuncionarioModel user){
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-
             String token = JWT.create()
-                    .withIssuer("login-auth-api")
+                    .withIssuer(ISSUER)
                     .withSubject(user.getEmail())
                     .withExpiresAt(this.generateExpirationDate())
                     .sign(algorithm);
@@ -32,19 +57,19 @@ public class TokenService {
     }
 
     public String validateToken(String token){
+        return verificar(token).map(TokenValidado::login).orElse(null);
+    }
+
+    public Optional<TokenValidado> verificar(String token){
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("login-auth-api")
-                    .build()
-                    .verify(token)
-                    .getSubject();
+            DecodedJWT jwt = verifier.verify(token);
+            return Optional.of(new TokenValidado(jwt.getSubject(), jwt.getExpiresAtAsInstant()));
         } catch (JWTVerificationException exception) {
-            return null;
+            return Optional.empty();
         }
     }
 
     private Instant generateExpirationDate(){
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
     }
-}
\ No newline at end of file
+}
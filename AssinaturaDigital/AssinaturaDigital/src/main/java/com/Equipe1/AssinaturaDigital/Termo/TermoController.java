@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @RestController
 @RequestMapping("/termos")
@@ -38,6 +39,19 @@ public class TermoController {
         List<TermoModel> termos = termoService.listarTermos();
         return ResponseEntity.ok(termos);
     }
+    //Listar termos por página (fica sob /lista para não colidir com /{titulo})
+    @GetMapping("/lista/pagina")
+    public ResponseEntity<?> listarTermosPaginados(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(defaultValue = "asc") String ordem,
+            @RequestParam(required = false) String campos) {
+        try {
+            return ResponseEntity.ok(termoService.listarPagina(cursor, tamanho, "desc".equalsIgnoreCase(ordem), campos));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 
 
 }
@@ -25,6 +25,10 @@ public class TermoModel {
         this.versao = versao;
     }
 
+    public String getId() {
+        return id;
+    }
+
     public String getTitulo() {
         return titulo;
     }
@@ -2,29 +2,50 @@ package com.Equipe1.AssinaturaDigital.Termo;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.Equipe1.AssinaturaDigital.Infra.Cache.CacheEntidade;
+import com.Equipe1.AssinaturaDigital.Infra.Cache.CacheEntidades;
+import com.Equipe1.AssinaturaDigital.Infra.Paginacao.ConsultaPaginada;
+import com.Equipe1.AssinaturaDigital.Infra.Paginacao.Pagina;
+
 @Service
 public class TermoService {
+    // O conteúdo HTML é o campo pesado: só vem na listagem se for pedido em ?campos=
+    private static final Set<String> CAMPOS_LISTAGEM = Set.of("titulo", "tipoTermo", "versao", "conteudoHtml");
+    private static final Set<String> CAMPOS_RESUMO = Set.of("titulo", "tipoTermo", "versao");
+
     @Autowired
     private TermoRepository termoRepository;
-    public TermoService(TermoRepository termoRepository) {
+    private ConsultaPaginada consultaPaginada;
+    // Termos por título
+    private final CacheEntidade<TermoModel> cache;
+    public TermoService(TermoRepository termoRepository, ConsultaPaginada consultaPaginada, CacheEntidades caches) {
     this.termoRepository = termoRepository;
+    this.consultaPaginada = consultaPaginada;
+    this.cache = caches.criar("termos");
     }
 
     public TermoModel criarTermo(TermoModel termo){
         if (termoRepository.existsByTitulo(termo.getTitulo())) {
             throw new IllegalArgumentException("Já existe um termo com esse título.");
         }
-        return termoRepository.save(termo);
+        TermoModel salvo = termoRepository.save(termo);
+        cache.invalidar(salvo.getTitulo());
+        return salvo;
     }
 
     public Optional<TermoModel> buscarPorTitulo(String titulo){
-        return termoRepository.findByTitulo(titulo);
+        return cache.buscar(titulo, termoRepository::findByTitulo);
     } 
     public List<TermoModel> listarTermos(){
         return termoRepository.findAll();
     }
+    public Pagina<TermoModel> listarPagina(String cursor, Integer tamanho, boolean decrescente, String campos){
+        return consultaPaginada.buscar(TermoModel.class, null, cursor, tamanho, decrescente,
+                ConsultaPaginada.resolverCampos(campos, CAMPOS_LISTAGEM, CAMPOS_RESUMO), TermoModel::getId);
+    }
 }
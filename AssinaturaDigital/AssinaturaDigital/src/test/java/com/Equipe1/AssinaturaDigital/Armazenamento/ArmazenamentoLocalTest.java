@@ -0,0 +1,143 @@
+package com.Equipe1.AssinaturaDigital.Armazenamento;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ArmazenamentoLocalTest {
+
+    @TempDir
+    Path raiz;
+
+    @Test
+    void gravaNoSubdiretorioDerivadoDoHashDaChave() throws Exception {
+        Path volume = raiz.resolve("vol1");
+        ArmazenamentoLocal armazenamento = new ArmazenamentoLocal(List.of(volume.toString()));
+
+        salvar(armazenamento, "arquivos/contrato.pdf", "pdf");
+
+        String hex = HexFormat.of().formatHex(sha256("arquivos/contrato.pdf"), 0, 2);
+        Path esperado = volume.resolve("arquivos").resolve(hex.substring(0, 2)).resolve(hex.substring(2, 4))
+                .resolve("contrato.pdf");
+        assertThat(esperado).hasContent("pdf");
+        assertThat(armazenamento.buscar("arquivos/contrato.pdf")).hasValueSatisfying(documento -> {
+            assertThat(documento.caminhoLocal()).isEqualTo(esperado);
+            assertThat(documento.tamanho()).isEqualTo(3);
+        });
+        // Nenhum temporário de gravação fica para trás
+        try (Stream<Path> arquivos = Files.walk(volume)) {
+            assertThat(arquivos.filter(Files::isRegularFile)).containsExactly(esperado);
+        }
+    }
+
+    @Test
+    void espalhaAsChavesEntreOsVolumes() throws IOException {
+        List<Path> volumes = List.of(raiz.resolve("a"), raiz.resolve("b"), raiz.resolve("c"));
+        ArmazenamentoLocal armazenamento = new ArmazenamentoLocal(volumes.stream().map(Path::toString).toList());
+
+        for (int i = 0; i < 60; i++) {
+            salvar(armazenamento, "selfies/selfie-" + i + ".jpg", "foto " + i);
+        }
+
+        for (Path volume : volumes) {
+            assertThat(contarArquivos(volume)).as("arquivos em %s", volume).isPositive();
+        }
+        assertThat(volumes.stream().mapToLong(this::contarArquivos).sum()).isEqualTo(60);
+        for (int i = 0; i < 60; i++) {
+            DocumentoArmazenado documento = armazenamento.buscar("selfies/selfie-" + i + ".jpg").orElseThrow();
+            assertThat(documento.caminhoLocal()).hasContent("foto " + i);
+        }
+    }
+
+    @Test
+    void encontraArquivosDoLayoutAntigoNoPrimeiroVolume() throws IOException {
+        Path primeiro = raiz.resolve("a");
+        Path segundo = raiz.resolve("b");
+        ArmazenamentoLocal armazenamento = new ArmazenamentoLocal(List.of(primeiro.toString(), segundo.toString()));
+        // PDFs antigos direto em uploads/ e selfies em uploads/selfies/
+        Files.createDirectories(primeiro.resolve("selfies"));
+        Files.writeString(primeiro.resolve("antigo.pdf"), "pdf antigo");
+        Files.writeString(primeiro.resolve("selfies").resolve("antiga.jpg"), "selfie antiga");
+
+        assertThat(armazenamento.existe("arquivos/antigo.pdf")).isTrue();
+        assertThat(armazenamento.buscar("arquivos/antigo.pdf")).hasValueSatisfying(documento ->
+            assertThat(documento.caminhoLocal()).isEqualTo(primeiro.resolve("antigo.pdf")));
+        assertThat(armazenamento.buscar("selfies/antiga.jpg")).hasValueSatisfying(documento ->
+            assertThat(documento.caminhoLocal()).hasContent("selfie antiga"));
+        assertThat(armazenamento.buscar("arquivos/inexistente.pdf")).isEmpty();
+    }
+
+    @Test
+    void apagaNoLayoutNovoENoAntigo() throws IOException {
+        Path volume = raiz.resolve("vol1");
+        ArmazenamentoLocal armazenamento = new ArmazenamentoLocal(List.of(volume.toString()));
+        salvar(armazenamento, "arquivos/novo.pdf", "novo");
+        Files.createDirectories(volume);
+        Files.writeString(volume.resolve("antigo.pdf"), "antigo");
+
+        armazenamento.apagar("arquivos/novo.pdf");
+        armazenamento.apagar("arquivos/antigo.pdf");
+        armazenamento.apagar("arquivos/nunca-existiu.pdf");
+
+        assertThat(armazenamento.existe("arquivos/novo.pdf")).isFalse();
+        assertThat(armazenamento.existe("arquivos/antigo.pdf")).isFalse();
+        assertThat(contarArquivos(volume)).isZero();
+    }
+
+    @Test
+    void importaMovendoOTemporario() throws IOException {
+        ArmazenamentoLocal armazenamento = new ArmazenamentoLocal(List.of(raiz.resolve("vol1").toString()));
+        Path temporario = Files.writeString(raiz.resolve("upload.tmp"), "conteúdo importado");
+
+        armazenamento.importar("arquivos/importado.pdf", temporario);
+
+        assertThat(temporario).doesNotExist();
+        assertThat(armazenamento.buscar("arquivos/importado.pdf")).hasValueSatisfying(documento ->
+            assertThat(documento.caminhoLocal()).hasContent("conteúdo importado"));
+    }
+
+    @Test
+    void recusaChavesQueSaemDoVolume() {
+        ArmazenamentoLocal armazenamento = new ArmazenamentoLocal(List.of(raiz.toString()));
+
+        assertThatThrownBy(() -> armazenamento.buscar("../fora.pdf")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> armazenamento.existe("/etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ArmazenamentoLocal(List.of())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void salvar(ArmazenamentoLocal armazenamento, String chave, String conteudo) throws IOException {
+        byte[] bytes = conteudo.getBytes(StandardCharsets.UTF_8);
+        try (InputStream entrada = new ByteArrayInputStream(bytes)) {
+            armazenamento.salvar(chave, entrada, bytes.length);
+        }
+    }
+
+    private long contarArquivos(Path volume) {
+        if (!Files.exists(volume)) {
+            return 0;
+        }
+        try (Stream<Path> arquivos = Files.walk(volume)) {
+            return arquivos.filter(Files::isRegularFile).count();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] sha256(String chave) throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance("SHA-256").digest(chave.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,67 @@
+package com.Equipe1.AssinaturaDigital.Armazenamento;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ArmazenamentoMemoriaTest {
+
+    private final ArmazenamentoMemoria armazenamento = new ArmazenamentoMemoria();
+
+    @Test
+    void salvaEBuscaOConteudo() throws IOException {
+        byte[] pdf = "%PDF-1.7 conteúdo".getBytes(StandardCharsets.UTF_8);
+
+        armazenamento.salvar("pdfs/ab/abc.pdf", new ByteArrayInputStream(pdf), pdf.length);
+
+        assertThat(armazenamento.existe("pdfs/ab/abc.pdf")).isTrue();
+        DocumentoArmazenado documento = armazenamento.buscar("pdfs/ab/abc.pdf").orElseThrow();
+        assertThat(documento.chave()).isEqualTo("pdfs/ab/abc.pdf");
+        assertThat(documento.tamanho()).isEqualTo(pdf.length);
+        assertThat(documento.ultimaModificacao()).isNotNull();
+        assertThat(documento.caminhoLocal()).isNull();
+        try (InputStream conteudo = documento.recurso().getInputStream()) {
+            assertThat(conteudo.readAllBytes()).isEqualTo(pdf);
+        }
+    }
+
+    @Test
+    void chaveInexistenteNaoEEncontrada() throws IOException {
+        assertThat(armazenamento.existe("selfies/nada.jpg")).isFalse();
+        assertThat(armazenamento.buscar("selfies/nada.jpg")).isEmpty();
+    }
+
+    @Test
+    void apagaODocumento() throws IOException {
+        armazenamento.salvar("selfies/1.jpg", new ByteArrayInputStream(new byte[] {1, 2, 3}), 3);
+
+        armazenamento.apagar("selfies/1.jpg");
+
+        assertThat(armazenamento.existe("selfies/1.jpg")).isFalse();
+        assertThat(armazenamento.buscar("selfies/1.jpg")).isEmpty();
+    }
+
+    @Test
+    void importaArquivoTemporario(@TempDir Path pasta) throws IOException {
+        Path temporario = Files.write(pasta.resolve("upload.tmp"), new byte[] {4, 5, 6, 7});
+
+        armazenamento.importar("pdfs/importado.pdf", temporario);
+
+        assertThat(armazenamento.buscar("pdfs/importado.pdf")).hasValueSatisfying(documento ->
+            assertThat(documento.tamanho()).isEqualTo(4));
+    }
+
+    @Test
+    void chaveDeRemoveABarraInicialDoCaminhoLogico() {
+        assertThat(ArmazenamentoDocumentos.chaveDe("/pdfs/a.pdf")).isEqualTo("pdfs/a.pdf");
+        assertThat(ArmazenamentoDocumentos.chaveDe("pdfs/a.pdf")).isEqualTo("pdfs/a.pdf");
+    }
+}
@@ -0,0 +1,68 @@
+package com.Equipe1.AssinaturaDigital.Armazenamento;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ArmazenamentoS3Test {
+
+    private ServidorS3Local servidor;
+    private ArmazenamentoS3 armazenamento;
+
+    @BeforeEach
+    void iniciar() throws IOException {
+        servidor = new ServidorS3Local();
+        // Mesma configuração de um MinIO local: endpoint próprio, path-style e chaves estáticas
+        armazenamento = new ArmazenamentoS3("documentos", "us-east-1", servidor.endpoint(), true, "minio", "minio123");
+    }
+
+    @AfterEach
+    void encerrar() {
+        armazenamento.fechar();
+        servidor.close();
+    }
+
+    @Test
+    void salvaEBuscaOConteudo() throws IOException {
+        byte[] pdf = "%PDF-1.7 conteúdo".getBytes(StandardCharsets.UTF_8);
+
+        armazenamento.salvar("arquivos/ab/contrato.pdf", new ByteArrayInputStream(pdf), pdf.length);
+
+        assertThat(servidor.objetos()).containsKey("documentos/arquivos/ab/contrato.pdf");
+        assertThat(armazenamento.existe("arquivos/ab/contrato.pdf")).isTrue();
+        DocumentoArmazenado documento = armazenamento.buscar("arquivos/ab/contrato.pdf").orElseThrow();
+        assertThat(documento.tamanho()).isEqualTo(pdf.length);
+        assertThat(documento.ultimaModificacao()).isNotNull();
+        assertThat(documento.caminhoLocal()).isNull();
+        try (InputStream conteudo = documento.recurso().getInputStream()) {
+            assertThat(conteudo.readAllBytes()).isEqualTo(pdf);
+        }
+    }
+
+    @Test
+    void chaveInexistenteNaoEEncontrada() throws IOException {
+        assertThat(armazenamento.existe("selfies/nada.jpg")).isFalse();
+        assertThat(armazenamento.buscar("selfies/nada.jpg")).isEmpty();
+    }
+
+    @Test
+    void importaArquivoEApaga(@TempDir Path pasta) throws IOException {
+        Path temporario = Files.write(pasta.resolve("upload.tmp"), new byte[] {1, 2, 3, 4});
+
+        armazenamento.importar("selfies/1.jpg", temporario);
+        assertThat(servidor.objetos().get("documentos/selfies/1.jpg")).containsExactly(1, 2, 3, 4);
+
+        armazenamento.apagar("selfies/1.jpg");
+        assertThat(armazenamento.existe("selfies/1.jpg")).isFalse();
+    }
+}
@@ -0,0 +1,153 @@
+package com.Equipe1.AssinaturaDigital.Armazenamento;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Servidor HTTP mínimo que responde como um S3 em path-style (PUT, GET, HEAD e DELETE de
+ * objetos), no papel do MinIO nos testes: sem Docker e sem rede externa
+ */
+final class ServidorS3Local implements AutoCloseable {
+
+    private record Objeto(byte[] bytes, Instant gravadoEm) {
+    }
+
+    private final HttpServer servidor;
+    private final Map<String, Objeto> objetos = new ConcurrentHashMap<>();
+
+    ServidorS3Local() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/", this::atender);
+        servidor.start();
+    }
+
+    String endpoint() {
+        return "http://127.0.0.1:" + servidor.getAddress().getPort();
+    }
+
+    /**
+     * Objetos por "bucket/chave"
+     */
+    Map<String, byte[]> objetos() {
+        Map<String, byte[]> copia = new ConcurrentHashMap<>();
+        objetos.forEach((caminho, objeto) -> copia.put(caminho, objeto.bytes()));
+        return copia;
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+    }
+
+    private void atender(HttpExchange troca) throws IOException {
+        try (troca) {
+            String caminho = troca.getRequestURI().getPath().substring(1);
+            switch (troca.getRequestMethod()) {
+                case "PUT" -> {
+                    byte[] corpo = lerCorpo(troca);
+                    objetos.put(caminho, new Objeto(corpo, Instant.now()));
+                    troca.getResponseHeaders().set("ETag", etag(corpo));
+                    troca.sendResponseHeaders(200, -1);
+                }
+                case "HEAD", "GET" -> {
+                    Objeto objeto = objetos.get(caminho);
+                    if (objeto == null) {
+                        naoEncontrado(troca);
+                        return;
+                    }
+                    troca.getResponseHeaders().set("ETag", etag(objeto.bytes()));
+                    troca.getResponseHeaders().set("Last-Modified",
+                            DateTimeFormatter.RFC_1123_DATE_TIME.format(objeto.gravadoEm().atOffset(ZoneOffset.UTC)));
+                    troca.getResponseHeaders().set("Content-Type", "application/octet-stream");
+                    if ("HEAD".equals(troca.getRequestMethod())) {
+                        troca.getResponseHeaders().set("Content-Length", Long.toString(objeto.bytes().length));
+                        troca.sendResponseHeaders(200, -1);
+                    } else {
+                        troca.sendResponseHeaders(200, objeto.bytes().length);
+                        try (OutputStream saida = troca.getResponseBody()) {
+                            saida.write(objeto.bytes());
+                        }
+                    }
+                }
+                case "DELETE" -> {
+                    objetos.remove(caminho);
+                    troca.sendResponseHeaders(204, -1);
+                }
+                default -> troca.sendResponseHeaders(405, -1);
+            }
+        }
+    }
+
+    private static void naoEncontrado(HttpExchange troca) throws IOException {
+        if ("HEAD".equals(troca.getRequestMethod())) {
+            troca.sendResponseHeaders(404, -1);
+            return;
+        }
+        byte[] erro = "<Error><Code>NoSuchKey</Code><Message>The specified key does not exist.</Message></Error>"
+                .getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", "application/xml");
+        troca.sendResponseHeaders(404, erro.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(erro);
+        }
+    }
+
+    // O SDK envia o corpo em "aws-chunked" (tamanho em hexa; dados; ...; 0; trailers com o checksum)
+    private static byte[] lerCorpo(HttpExchange troca) throws IOException {
+        byte[] bruto;
+        try (InputStream entrada = troca.getRequestBody()) {
+            bruto = entrada.readAllBytes();
+        }
+        String codificacao = troca.getRequestHeaders().getFirst("Content-Encoding");
+        String decodificado = troca.getRequestHeaders().getFirst("x-amz-decoded-content-length");
+        if (decodificado == null && (codificacao == null || !codificacao.toLowerCase(Locale.ROOT).contains("aws-chunked"))) {
+            return bruto;
+        }
+        ByteArrayOutputStream corpo = new ByteArrayOutputStream();
+        int posicao = 0;
+        while (true) {
+            int fimLinha = indiceCrlf(bruto, posicao);
+            String cabecalho = new String(bruto, posicao, fimLinha - posicao, StandardCharsets.US_ASCII);
+            int tamanho = Integer.parseInt(cabecalho.split(";")[0].trim(), 16);
+            posicao = fimLinha + 2;
+            if (tamanho == 0) {
+                return corpo.toByteArray();
+            }
+            corpo.write(bruto, posicao, tamanho);
+            posicao += tamanho + 2;
+        }
+    }
+
+    private static int indiceCrlf(byte[] bytes, int inicio) {
+        for (int i = inicio; i < bytes.length - 1; i++) {
+            if (bytes[i] == '\r' && bytes[i + 1] == '\n') {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Corpo aws-chunked malformado");
+    }
+
+    private static String etag(byte[] conteudo) {
+        try {
+            return "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(conteudo)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class AcessoPublicoTest {
+
+    @Test
+    void selfieCorrompidaEErroDeQuemEnviou() {
+        var resposta = AcessoPublico.respostaFalhaConfirmacao(
+                new SelfieService.SelfieInvalidaException("Selfie deve ser uma imagem válida."));
+
+        assertThat(resposta.getStatusCode().value()).isEqualTo(400);
+    }
+
+    @Test
+    void selfieAcimaDoLimiteRespondePayloadTooLarge() {
+        var resposta = AcessoPublico.respostaFalhaConfirmacao(
+                new SelfieService.SelfieGrandeDemaisException("Selfie excede o tamanho máximo de 10 MB."));
+
+        assertThat(resposta.getStatusCode().value()).isEqualTo(413);
+    }
+
+    @Test
+    void cpfQueNaoConfereContinuaNaoAutorizado() {
+        var resposta = AcessoPublico.respostaFalhaConfirmacao(
+                new IllegalArgumentException("CPF informado não confere com o cliente."));
+
+        assertThat(resposta.getStatusCode().value()).isEqualTo(401);
+    }
+
+    @Test
+    void poolCheioPedeNovaTentativa() {
+        var resposta = AcessoPublico.respostaFalhaConfirmacao(
+                new SelfieService.SelfieIndisponivelException("Processamento de selfies sobrecarregado, tente novamente."));
+
+        assertThat(resposta.getStatusCode().value()).isEqualTo(503);
+        assertThat(resposta.getHeaders().getFirst("Retry-After")).isEqualTo("5");
+    }
+}
@@ -0,0 +1,53 @@
+package com.Equipe1.AssinaturaDigital.Assinatura;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class MaquinaEstadosAssinaturaTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "CRIADA, LINK_ENVIADO",
+        "EXPIRADA, LINK_ENVIADO",
+        "LINK_ENVIADO, ASSINADA",
+        "ASSINADA, CONFIRMADA",
+        "RECUSADA, CONFIRMADA",
+        "LINK_ENVIADO, RECUSADA",
+        "EXPIRADA, CANCELADA",
+        "LINK_ENVIADO, EXPIRADA"
+    })
+    void permiteTransicoesPrevistas(StatusAssinatura origem, StatusAssinatura destino) {
+        assertThat(MaquinaEstadosAssinatura.permite(origem, destino)).isTrue();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "CONFIRMADA, CONFIRMADA",
+        "CONFIRMADA, RECUSADA",
+        "ASSINADA, LINK_ENVIADO",
+        "EXPIRADA, ASSINADA",
+        "CANCELADA, CONFIRMADA",
+        "ASSINADA, EXPIRADA",
+        "CONFIRMADA, CANCELADA"
+    })
+    void recusaTransicoesProibidas(StatusAssinatura origem, StatusAssinatura destino) {
+        assertThat(MaquinaEstadosAssinatura.permite(origem, destino)).isFalse();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = StatusAssinatura.class, names = {"CRIADA", "PENDENTE"})
+    void statusIniciaisNaoSaoDestino(StatusAssinatura destino) {
+        assertThat(MaquinaEstadosAssinatura.origens(destino)).isEmpty();
+    }
+
+    @Test
+    void confirmadaEFinal() {
+        for (StatusAssinatura destino : StatusAssinatura.values()) {
+            assertThat(MaquinaEstadosAssinatura.permite(StatusAssinatura.CONFIRMADA, destino)).isFalse();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.Equipe1.AssinaturaDigital.Cliente;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class LeitorCsvTest {
+
+    @Test
+    void leSeparadorVirgulaComCamposEntreAspas() throws IOException {
+        List<ImportacaoClientesJob.Linha> linhas = ler("""
+                nome,email,telefone,cpf
+                "Silva, Ana",Ana@Exemplo.com,11999990000,123.456.789-09
+                "Bruno ""Bê"" Souza",bruno@exemplo.com,,98765432100
+                """);
+
+        assertThat(linhas).hasSize(2);
+        assertThat(linhas.get(0).numero()).isEqualTo(2);
+        assertThat(linhas.get(0).cliente().getNome()).isEqualTo("Silva, Ana");
+        assertThat(linhas.get(0).cliente().getEmail()).isEqualTo("ana@exemplo.com");
+        assertThat(linhas.get(0).cliente().getCpf()).isEqualTo("12345678909");
+        assertThat(linhas.get(1).cliente().getNome()).isEqualTo("Bruno \"Bê\" Souza");
+    }
+
+    @Test
+    void lePontoEVirgulaEColunasEmOutraOrdem() throws IOException {
+        // Com BOM do Excel no início do cabeçalho
+        List<ImportacaoClientesJob.Linha> linhas = ler("\uFEFF" + """
+                cpf;Nome;EMAIL;telefone
+
+                12345678909;"Ana; Maria";ana@exemplo.com;11999990000
+                """);
+
+        assertThat(linhas).singleElement().satisfies(linha -> {
+            assertThat(linha.numero()).isEqualTo(3);
+            assertThat(linha.cliente().getNome()).isEqualTo("Ana; Maria");
+            assertThat(linha.cliente().getTelefone()).isEqualTo("11999990000");
+            assertThat(linha.cliente().getCpf()).isEqualTo("12345678909");
+        });
+    }
+
+    @Test
+    void campoEntreAspasPodeTerQuebraDeLinha() throws IOException {
+        List<ImportacaoClientesJob.Linha> linhas = ler("""
+                nome,email,telefone,cpf
+                "Ana
+                Maria",ana@exemplo.com,11999990000,12345678909
+                Bruno,bruno@exemplo.com,11888880000,98765432100
+                """);
+
+        assertThat(linhas).hasSize(2);
+        assertThat(linhas.get(0).cliente().getNome()).isEqualTo("Ana\nMaria");
+        assertThat(linhas.get(1).numero()).isEqualTo(4);
+        assertThat(linhas.get(1).cliente().getNome()).isEqualTo("Bruno");
+    }
+
+    @Test
+    void recusaAspasSemFechamento() {
+        assertThatThrownBy(() -> ler("""
+                nome,email,telefone,cpf
+                "Ana,ana@exemplo.com,11999990000,12345678909
+                """))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("linha 2");
+    }
+
+    @Test
+    void recusaCabecalhoSemAsColunasObrigatorias() {
+        assertThatThrownBy(() -> ler("nome,email\nAna,ana@exemplo.com\n"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<ImportacaoClientesJob.Linha> ler(String csv) throws IOException {
+        ImportacaoClientesJob.LeitorCsv leitor = new ImportacaoClientesJob.LeitorCsv(new BufferedReader(new StringReader(csv)));
+        ImportacaoClientesJob.Importacao importacao = new ImportacaoClientesJob.Importacao("teste", ImportacaoClientesJob.Formato.CSV);
+        List<ImportacaoClientesJob.Linha> linhas = new ArrayList<>();
+        ImportacaoClientesJob.Linha linha;
+        while ((linha = leitor.proxima(importacao)) != null) {
+            linhas.add(linha);
+        }
+        assertThat(importacao.progresso().linhasLidas()).isEqualTo(linhas.size());
+        return linhas;
+    }
+}
@@ -0,0 +1,43 @@
+package com.Equipe1.AssinaturaDigital.Infra.Limite;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class BaldeTokensLocalTest {
+
+    private final BaldeTokensLocal balde = new BaldeTokensLocal();
+
+    @Test
+    void permiteRajadaAteACapacidadeENegaAProxima() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(balde.consumir("login:1.2.3.4", 3, 1).permitido()).isTrue();
+        }
+
+        BaldeTokens.Consumo negado = balde.consumir("login:1.2.3.4", 3, 1);
+        assertThat(negado.permitido()).isFalse();
+        assertThat(negado.esperar()).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void repoeFichasComOTempo() throws InterruptedException {
+        // 100 fichas por segundo: uma nova a cada 10 ms
+        assertThat(balde.consumir("links:1.2.3.4", 2, 100).permitido()).isTrue();
+        assertThat(balde.consumir("links:1.2.3.4", 2, 100).permitido()).isTrue();
+        assertThat(balde.consumir("links:1.2.3.4", 2, 100).permitido()).isFalse();
+
+        Thread.sleep(25);
+
+        assertThat(balde.consumir("links:1.2.3.4", 2, 100).permitido()).isTrue();
+    }
+
+    @Test
+    void chavesDiferentesTemBaldesSeparados() {
+        assertThat(balde.consumir("login:1.1.1.1", 1, 0.1).permitido()).isTrue();
+        assertThat(balde.consumir("login:1.1.1.1", 1, 0.1).permitido()).isFalse();
+
+        assertThat(balde.consumir("login:2.2.2.2", 1, 0.1).permitido()).isTrue();
+    }
+}
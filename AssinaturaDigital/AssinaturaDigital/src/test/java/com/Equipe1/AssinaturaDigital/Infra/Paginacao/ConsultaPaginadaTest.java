@@ -0,0 +1,104 @@
+package com.Equipe1.AssinaturaDigital.Infra.Paginacao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+class ConsultaPaginadaTest {
+
+    record Item(String id, LocalDateTime data) {
+    }
+
+    private static final Map<String, ConsultaPaginada.Ordenacao<Item>> ORDENACOES =
+            Map.of("data", new ConsultaPaginada.Ordenacao<>("data", Item::data));
+
+    private MongoTemplate mongoTemplate;
+    private ConsultaPaginada consulta;
+
+    @BeforeEach
+    void configurar() {
+        mongoTemplate = mock(MongoTemplate.class);
+        MappingMongoConverter conversor = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        conversor.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(conversor);
+        consulta = new ConsultaPaginada(mongoTemplate, 20, 200);
+    }
+
+    @Test
+    void cursorLevaOParCampoEIdParaAProximaPagina() {
+        LocalDateTime data = LocalDateTime.of(2026, 3, 10, 14, 30);
+        ObjectId id = new ObjectId();
+        when(mongoTemplate.find(any(Query.class), eq(Item.class))).thenReturn(List.of(
+                new Item(new ObjectId().toHexString(), data.plusDays(1)),
+                new Item(id.toHexString(), data),
+                new Item(new ObjectId().toHexString(), data.minusDays(1))));
+
+        Pagina<Item> primeira = buscar(null, 2, true);
+        assertThat(primeira.itens()).hasSize(2);
+        assertThat(primeira.temMais()).isTrue();
+
+        ArgumentCaptor<Query> consultaFeita = ArgumentCaptor.forClass(Query.class);
+        buscar(primeira.proximoCursor(), 2, true);
+        verify(mongoTemplate, times(2)).find(consultaFeita.capture(), eq(Item.class));
+
+        Query segunda = consultaFeita.getAllValues().get(1);
+        assertThat(segunda.getSortObject()).isEqualTo(new Document("data", -1).append("_id", -1));
+        @SuppressWarnings("unchecked")
+        List<Document> ramos = (List<Document>) segunda.getQueryObject().get("$or");
+        // Depois do par: data menor, data nula (fica por último no decrescente) ou mesma data com _id menor
+        assertThat(ramos).hasSize(3);
+        assertThat(ramos.get(0).get("data", Document.class).get("$lt")).isNotNull();
+        assertThat(ramos.get(1)).isEqualTo(new Document("data", null));
+        assertThat(ramos.get(2).get("_id")).isEqualTo(new Document("$lt", id));
+    }
+
+    @Test
+    void valorNuloNoCursorSoAvancaPeloIdNoCrescente() {
+        ObjectId id = new ObjectId();
+        when(mongoTemplate.find(any(Query.class), eq(Item.class))).thenReturn(List.of(
+                new Item(id.toHexString(), null), new Item(new ObjectId().toHexString(), null)));
+
+        Pagina<Item> primeira = buscar(null, 1, false);
+        buscar(primeira.proximoCursor(), 1, false);
+
+        ArgumentCaptor<Query> consultaFeita = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(consultaFeita.capture(), eq(Item.class));
+        @SuppressWarnings("unchecked")
+        List<Document> ramos = (List<Document>) consultaFeita.getAllValues().get(1).getQueryObject().get("$or");
+        assertThat(ramos.get(0)).isEqualTo(new Document("data", new Document("$ne", null)));
+        assertThat(ramos.get(1)).isEqualTo(new Document("data", null).append("_id", new Document("$gt", id)));
+    }
+
+    @Test
+    void recusaOrdenacaoForaDaListaECursorAdulterado() {
+        assertThatThrownBy(() -> consulta.buscar(Item.class, null, null, 10, false, Set.of(), Item::id, "cpf", ORDENACOES))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> buscar("nao-e-um-cursor", 10, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Pagina<Item> buscar(String cursor, int tamanho, boolean decrescente) {
+        return consulta.buscar(Item.class, null, cursor, tamanho, decrescente, Set.of("data"), Item::id, "data", ORDENACOES);
+    }
+}
@@ -0,0 +1,57 @@
+package com.Equipe1.AssinaturaDigital.Infra.Security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.Equipe1.AssinaturaDigital.Funcionario.FuncionarioModel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CacheAutenticacaoTest {
+
+    private final CacheAutenticacao cache = new CacheAutenticacao(100, Duration.ofMinutes(15), new SimpleMeterRegistry());
+    private final Instant expiraEm = Instant.now().plus(1, ChronoUnit.HOURS);
+
+    @Test
+    void guardaFuncionarioCarregadoSemAlteracaoNoMeioTempo() {
+        FuncionarioModel funcionario = new FuncionarioModel("Ana", "ana@empresa.com", "hash");
+
+        cache.guardar("token", funcionario, expiraEm, cache.geracao());
+
+        assertThat(cache.buscar("token")).isSameAs(funcionario);
+    }
+
+    @Test
+    void descartaFuncionarioLidoAntesDeUmaAlteracao() {
+        long geracao = cache.geracao();
+        FuncionarioModel antigo = new FuncionarioModel("Ana", "ana@empresa.com", "hash");
+
+        // A alteração termina enquanto a autenticação ainda consultava o Mongo
+        cache.invalidarFuncionario(null, "ana@empresa.com");
+        cache.guardar("token", antigo, expiraEm, geracao);
+
+        assertThat(cache.buscar("token")).isNull();
+    }
+
+    @Test
+    void alteracaoDescartaTokensDoFuncionario() {
+        cache.guardar("token", new FuncionarioModel("Ana", "ana@empresa.com", "hash"), expiraEm, cache.geracao());
+
+        cache.invalidarFuncionario(null, "ANA@empresa.com");
+
+        assertThat(cache.buscar("token")).isNull();
+    }
+
+    @Test
+    void naoGuardaTokenJaExpirado() {
+        cache.guardar("token", new FuncionarioModel("Ana", "ana@empresa.com", "hash"),
+                Instant.now().minusSeconds(1), cache.geracao());
+
+        assertThat(cache.buscar("token")).isNull();
+    }
+}
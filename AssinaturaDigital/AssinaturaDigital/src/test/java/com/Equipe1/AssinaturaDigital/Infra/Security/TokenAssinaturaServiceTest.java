@@ -0,0 +1,91 @@
+package com.Equipe1.AssinaturaDigital.Infra.Security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TokenAssinaturaServiceTest {
+
+    private static final String ID = "65a1f0c2e4b0a1b2c3d4e5f6";
+    private static final String PDF_SHA256 = "ab".repeat(32);
+
+    private TokenAssinaturaService service;
+
+    @BeforeEach
+    void configurar() {
+        service = comSegredo("segredo-de-teste");
+    }
+
+    @Test
+    void idaEVoltaComObjectIdEHashDoPdf() {
+        Instant expiraEm = Instant.now().plus(7, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+
+        Optional<TokenAssinaturaService.TokenAssinatura> token = service.verificar(service.gerar(ID, expiraEm, PDF_SHA256));
+
+        assertThat(token).hasValueSatisfying(conteudo -> {
+            assertThat(conteudo.assinaturaId()).isEqualTo(ID);
+            assertThat(conteudo.expiraEm()).isEqualTo(expiraEm);
+            assertThat(conteudo.pdfSha256()).isEqualTo(PDF_SHA256);
+            assertThat(conteudo.expirado()).isFalse();
+        });
+    }
+
+    @Test
+    void idaEVoltaComIdQueNaoEObjectIdESemPdf() {
+        Instant expiraEm = Instant.now().minusSeconds(60).truncatedTo(ChronoUnit.SECONDS);
+
+        Optional<TokenAssinaturaService.TokenAssinatura> token = service.verificar(service.gerar("assinatura-1", expiraEm, null));
+
+        assertThat(token).hasValueSatisfying(conteudo -> {
+            assertThat(conteudo.assinaturaId()).isEqualTo("assinatura-1");
+            assertThat(conteudo.pdfSha256()).isNull();
+            assertThat(conteudo.expirado()).isTrue();
+        });
+    }
+
+    @Test
+    void recusaTokenAdulterado() {
+        byte[] bruto = Base64.getUrlDecoder().decode(service.gerar(ID, Instant.now().plusSeconds(60), PDF_SHA256));
+        // Estende a validade sem refazer o HMAC
+        bruto[9] ^= 0x01;
+
+        assertThat(service.verificar(Base64.getUrlEncoder().withoutPadding().encodeToString(bruto))).isEmpty();
+    }
+
+    @Test
+    void recusaTokenTruncado() {
+        String token = service.gerar(ID, Instant.now().plusSeconds(60), PDF_SHA256);
+
+        assertThat(service.verificar(token.substring(0, token.length() - 4))).isEmpty();
+        assertThat(service.verificar(token.substring(0, 10))).isEmpty();
+        assertThat(service.verificar("")).isEmpty();
+        assertThat(service.verificar(null)).isEmpty();
+    }
+
+    @Test
+    void recusaTokenDeOutroSegredo() {
+        String token = comSegredo("outro-segredo").gerar(ID, Instant.now().plusSeconds(60), null);
+
+        assertThat(service.verificar(token)).isEmpty();
+    }
+
+    @Test
+    void reconheceIdBruto() {
+        assertThat(TokenAssinaturaService.ehIdBruto(ID)).isTrue();
+        assertThat(TokenAssinaturaService.ehIdBruto(service.gerar(ID, Instant.now(), null))).isFalse();
+    }
+
+    private static TokenAssinaturaService comSegredo(String segredo) {
+        TokenAssinaturaService service = new TokenAssinaturaService();
+        ReflectionTestUtils.setField(service, "segredo", segredo);
+        service.inicializar();
+        return service;
+    }
+}